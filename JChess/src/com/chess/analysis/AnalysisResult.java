@@ -0,0 +1,107 @@
+package com.chess.analysis;
+
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.ai.AlphaBetaSearch;
+
+/**
+ * Search result for one position of a batch - or the error for an input line which is no valid position.
+ */
+public final class AnalysisResult {
+
+    private final long index;
+    private final String fen;
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final String error;
+
+    AnalysisResult(final long index,
+                   final String fen,
+                   final int bestMove,
+                   final int score,
+                   final int depth,
+                   final long nodes,
+                   final long elapsedNanos) {
+        this(index, fen, bestMove, score, depth, nodes, elapsedNanos, null);
+    }
+
+    private AnalysisResult(final long index,
+                           final String fen,
+                           final int bestMove,
+                           final int score,
+                           final int depth,
+                           final long nodes,
+                           final long elapsedNanos,
+                           final String error) {
+        this.index = index;
+        this.fen = fen;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.error = error;
+    }
+
+    // Input line which could not be parsed - text as read, nothing searched.
+    static AnalysisResult error(final long index, final String line, final String error) {
+        return new AnalysisResult(index, line, PackedMove.NONE, 0, 0, 0, 0, error);
+    }
+
+    // Position number in the input, 0 based.
+    public long getIndex() {
+        return this.index;
+    }
+
+    // FEN of the position, the line as read for an error.
+    public String getFen() {
+        return this.fen;
+    }
+
+    // PackedMove, PackedMove.NONE when the side to move has no legal move.
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    // Centipawns from the side to move point of view, mate scores as in AlphaBetaSearch.
+    public int getScore() {
+        return this.score;
+    }
+
+    // Deepest finished iteration.
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public boolean isError() {
+        return this.error != null;
+    }
+
+    // Why the line is no valid position, null for a searched one.
+    public String getError() {
+        return this.error;
+    }
+
+    /**
+     * One line, fields separated by ';' - FEN, best move (long algebraic, "0000" for none), score ("cp 35" or
+     * "mate -3"), depth, nodes, milliseconds. For an error: the line as read, "error" and the message.
+     */
+    @Override
+    public String toString() {
+        if(isError()) {
+            return this.fen + ";error;" + this.error;
+        }
+        return this.fen + ';' + (this.bestMove == PackedMove.NONE ? "0000" : PackedMove.toString(this.bestMove)) + ';' +
+               AlphaBetaSearch.formatScore(this.score) + ';' + this.depth + ';' + this.nodes + ';' + this.elapsedNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,211 @@
+package com.chess.analysis;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.player.ai.AlphaBetaSearch;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.pgn.FenFileLoader;
+import com.chess.pgn.FenUtilities;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Headless analysis of a FEN / EPD file of any size - every position is searched with the same depth, time and
+ * node limits, results come out in input order.
+ *
+ * The calling thread streams the positions in (FenFileLoader) and hands each one to a fixed pool with a thread
+ * per core. Every pool thread keeps its own AlphaBetaSearch and TranspositionTable for all the positions it gets,
+ * the evaluator (and its pawn hash) is shared. At most two positions per pool thread are in flight - a full window
+ * makes the reader wait for the oldest result - so the pool never runs dry and memory stays flat however many
+ * positions there are. Results are handed to the sink on the calling thread, so the sink needs no synchronization.
+ * A line which is no valid position does not stop the run - it gets an error result in its place in the output.
+ *
+ * Usage: BatchAnalyzer fenFile [threads] [maxDepth] [moveTimeMillis] [nodes] [outputFile]
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_DEPTH = 64;
+    private static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final ExecutorService pool;
+    private final int maxInFlight;
+    private final ThreadLocal<AlphaBetaSearch> searches;
+    private long positionCount;
+    private long errorCount;
+    private long elapsedNanos;
+
+    /**
+     * @param threadCount pool threads
+     * @param maxDepth deepest iteration per position
+     * @param moveTimeMillis time per position, Long.MAX_VALUE for none
+     * @param nodeBudget nodes per position, Long.MAX_VALUE for none
+     * @param hashMegabytes transposition table size of every pool thread
+     */
+    public BatchAnalyzer(final int threadCount,
+                         final int maxDepth,
+                         final long moveTimeMillis,
+                         final long nodeBudget,
+                         final int hashMegabytes) {
+        if(threadCount < 1) {
+            throw new RuntimeException("At least one analysis thread needed, not " + threadCount);
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "batch-analyzer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxInFlight = 2 * threadCount;
+        final BoardEvaluator evaluator = new StandardBoardEvaluator();
+        this.searches = ThreadLocal.withInitial(() -> new AlphaBetaSearch(maxDepth, moveTimeMillis, nodeBudget,
+                                                                          new TranspositionTable(hashMegabytes), evaluator));
+    }
+
+    public BatchAnalyzer(final int threadCount, final int maxDepth, final long moveTimeMillis) {
+        this(threadCount, maxDepth, moveTimeMillis, Long.MAX_VALUE, DEFAULT_HASH_MEGABYTES);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if(args.length < 1) {
+            System.err.println("Usage: BatchAnalyzer fenFile [threads] [maxDepth] [moveTimeMillis] [nodes] [outputFile]");
+            return;
+        }
+        final Path file = Paths.get(args[0]);
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final int maxDepth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_DEPTH;
+        final long moveTime = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_MOVE_TIME_MILLIS;
+        final long nodes = args.length > 4 ? Long.parseLong(args[4]) : Long.MAX_VALUE;
+        try(final PrintWriter output = args.length > 5 ?
+                new PrintWriter(Files.newBufferedWriter(Paths.get(args[5]), StandardCharsets.UTF_8)) :
+                new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+            final BatchAnalyzer analyzer = new BatchAnalyzer(threads, maxDepth, moveTime <= 0 ? Long.MAX_VALUE : moveTime,
+                                                             nodes, DEFAULT_HASH_MEGABYTES)) {
+            analyzer.analyze(file, output::println);
+            output.flush();
+            System.err.printf("%,d positions in %.1f s (%d threads), %,d invalid lines%n", analyzer.getPositionCount(),
+                              analyzer.getElapsedNanos() / 1_000_000_000.0, threads, analyzer.getErrorCount());
+        }
+    }
+
+    /**
+     * Searches every position in the file.
+     * @param file FEN / EPD, one position per line
+     * @param sink called with each result in file order, on the calling thread - error results for malformed lines
+     * @return number of positions analyzed, malformed lines not counted
+     * @throws IOException
+     */
+    public long analyze(final Path file, final Consumer<AnalysisResult> sink) throws IOException {
+        final long start = System.nanoTime();
+        this.positionCount = 0;
+        this.errorCount = 0;
+        final ArrayDeque<Future<AnalysisResult>> inFlight = new ArrayDeque<>();
+        try {
+            final long[] index = {0};
+            new FenFileLoader().load(file, board -> submit(board, index[0]++, inFlight, sink),
+                                     (line, error) -> submitError(line, error, index[0]++, inFlight, sink));
+            while(!inFlight.isEmpty()) {
+                emit(inFlight.removeFirst(), sink);
+            }
+        } finally {
+            // Reading or the sink failed - the remaining searches are of no use any more.
+            for(final Future<AnalysisResult> task : inFlight) {
+                task.cancel(true);
+            }
+            this.elapsedNanos = System.nanoTime() - start;
+        }
+        return this.positionCount;
+    }
+
+    private void submit(final Board board,
+                        final long index,
+                        final ArrayDeque<Future<AnalysisResult>> inFlight,
+                        final Consumer<AnalysisResult> sink) {
+        if(inFlight.size() == this.maxInFlight) {
+            emit(inFlight.removeFirst(), sink);
+        }
+        inFlight.addLast(this.pool.submit(() -> analyzePosition(board, index)));
+    }
+
+    // Already complete - queued behind the searches before it, so output stays in input order.
+    private void submitError(final String line,
+                             final RuntimeException error,
+                             final long index,
+                             final ArrayDeque<Future<AnalysisResult>> inFlight,
+                             final Consumer<AnalysisResult> sink) {
+        if(inFlight.size() == this.maxInFlight) {
+            emit(inFlight.removeFirst(), sink);
+        }
+        inFlight.addLast(CompletableFuture.completedFuture(AnalysisResult.error(index, line, error.getMessage())));
+    }
+
+    private AnalysisResult analyzePosition(final Board board, final long index) {
+        final long start = System.nanoTime();
+        final AlphaBetaSearch search = this.searches.get();
+        final int bestMove = search.search(MutableBoard.fromBoard(board));
+        return new AnalysisResult(index, FenUtilities.createFENFromGame(board), bestMove, search.getBestScore(),
+                                  search.getCompletedDepth(), search.getNodesSearched(), System.nanoTime() - start);
+    }
+
+    private void emit(final Future<AnalysisResult> task, final Consumer<AnalysisResult> sink) {
+        final AnalysisResult result;
+        try {
+            result = task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an analysis", e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("Analysis of position " + (this.positionCount + this.errorCount + 1) + " failed", e.getCause());
+        }
+        if(result.isError()) {
+            this.errorCount++;
+        } else {
+            this.positionCount++;
+        }
+        sink.accept(result);
+    }
+
+    /**
+     * Stops the pool threads - a running analyze() fails.
+     */
+    @Override
+    public void close() {
+        this.pool.shutdownNow();
+    }
+
+    // Statistics of the last analyze().
+
+    public long getPositionCount() {
+        return this.positionCount;
+    }
+
+    // Input lines which were no valid position.
+    public long getErrorCount() {
+        return this.errorCount;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public double getPositionsPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.positionCount * 1_000_000_000.0 / this.elapsedNanos;
+    }
+}
@@ -0,0 +1,75 @@
+package com.chess.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal JMH style runner - warmup iterations first (so the JIT has compiled the code), then measured iterations
+ * of fixed length. Reports operations per second and bytes allocated per operation on the current thread.
+ *
+ * Every operation returns a long which is folded into a field, so the JIT cannot drop the work as unused.
+ */
+public final class BenchmarkRunner {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private long sink;
+
+    public BenchmarkRunner(final int warmupIterations,
+                           final int measurementIterations,
+                           final long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    // Bytes allocated so far by the calling thread.
+    static long allocatedBytes() {
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    /**
+     * Runs the benchmark and prints one result line.
+     * @param name
+     * @param operation
+     */
+    public void run(final String name, final LongSupplier operation) {
+        for(int i = 0; i < this.warmupIterations; i++) {
+            runIteration(operation);
+        }
+        long operations = 0;
+        long elapsed = 0;
+        long allocated = 0;
+        for(int i = 0; i < this.measurementIterations; i++) {
+            final long startBytes = allocatedBytes();
+            final long startTime = System.nanoTime();
+            operations += runIteration(operation);
+            elapsed += System.nanoTime() - startTime;
+            allocated += allocatedBytes() - startBytes;
+        }
+        System.out.printf("%-45s %,15d ops/s %,12d B/op%n", name,
+                operations * 1_000_000_000L / Math.max(1, elapsed), allocated / Math.max(1, operations));
+    }
+
+    private long runIteration(final LongSupplier operation) {
+        final long deadline = System.nanoTime() + this.iterationNanos;
+        long operations = 0;
+        // Check the clock every 16 operations only - nanoTime() is not free either.
+        do {
+            for(int i = 0; i < 16; i++) {
+                this.sink += operation.getAsLong();
+            }
+            operations += 16;
+        } while(System.nanoTime() < deadline);
+        return operations;
+    }
+
+    // Keeps the results observable, see class comment.
+    public long getSink() {
+        return this.sink;
+    }
+}
@@ -0,0 +1,105 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.MoveStatus;
+import com.chess.server.GameSession;
+import com.chess.server.GameSessionManager;
+import com.chess.server.MoveResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Per move latency of GameSessionManager with 1, 10, 100 ... concurrent games. Every game has a client on its own
+ * virtual thread which plays random legal moves (fixed seed per game) and waits for each answer - latency is
+ * submitMove() until the result is back. Without shared locks on the move path it should only grow once the
+ * cores are busy.
+ *
+ * Usage: GameSessionBenchmark [maxSessions] [pliesPerGame]
+ */
+public final class GameSessionBenchmark {
+
+    private static final int DEFAULT_MAX_SESSIONS = 1000;
+    private static final int DEFAULT_PLIES_PER_GAME = 40;
+
+    private GameSessionBenchmark() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final int maxSessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_SESSIONS;
+        final int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES_PER_GAME;
+        // Warmup, so the single game is not measured with interpreted code.
+        run(Math.min(maxSessions, 100), plies);
+
+        System.out.printf("%-10s %10s %12s %12s %12s %12s%n", "sessions", "moves", "mean us", "p50 us", "p99 us", "moves/s");
+        for(int sessions = 1; sessions <= maxSessions; sessions *= 10) {
+            final long start = System.nanoTime();
+            final long[] latencies = run(sessions, plies);
+            final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            Arrays.sort(latencies);
+            final double mean = Arrays.stream(latencies).average().orElse(0);
+            System.out.printf("%-10d %,10d %,12.1f %,12.1f %,12.1f %,12.0f%n", sessions, latencies.length, mean / 1000.0,
+                              percentile(latencies, 0.5) / 1000.0, percentile(latencies, 0.99) / 1000.0, latencies.length / seconds);
+        }
+    }
+
+    // Plays the games and returns the latency of every move in nanoseconds.
+    private static long[] run(final int sessionCount, final int plies) throws InterruptedException {
+        final long[][] latencies = new long[sessionCount][];
+        final ThreadFactory clients = Thread.ofVirtual().name("game-client-", 1).factory();
+        final List<Thread> threads = new ArrayList<>(sessionCount);
+        try(final GameSessionManager manager = new GameSessionManager()) {
+            for(int i = 0; i < sessionCount; i++) {
+                final int client = i;
+                final GameSession session = manager.createSession(0, 0);
+                final Thread thread = clients.newThread(() -> latencies[client] = playGame(session, plies, new Random(client)));
+                threads.add(thread);
+                thread.start();
+            }
+            for(final Thread thread : threads) {
+                thread.join();
+            }
+        }
+        return Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+    }
+
+    // Client side - keeps its own copy of the board to pick legal moves from.
+    private static long[] playGame(final GameSession session, final int plies, final Random random) {
+        final long[] latencies = new long[plies];
+        Board board = Board.createStandardBoard();
+        int moves = 0;
+        while(moves < plies) {
+            final List<Move> legalMoves = new ArrayList<>();
+            for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+                if(board.isLegalMove(move)) {
+                    legalMoves.add(move);
+                }
+            }
+            if(legalMoves.isEmpty()) {
+                break;
+            }
+            final Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+            final long start = System.nanoTime();
+            final MoveResult result = session.submitMove(PackedMove.toString(PackedMove.fromMove(move))).join();
+            latencies[moves++] = System.nanoTime() - start;
+            if(result.getMoveStatus() != MoveStatus.DONE) {
+                throw new RuntimeException("Session " + session.getId() + " refused " + move + ": " + result.getMoveStatus());
+            }
+            if(result.getState().getStatus().isOver()) {
+                break;
+            }
+            board = board.getCurrentPlayer().makeMove(move).getTransitionBoard();
+        }
+        return Arrays.copyOf(latencies, moves);
+    }
+
+    private static long percentile(final long[] sorted, final double fraction) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.round(fraction * (sorted.length - 1)))];
+    }
+}
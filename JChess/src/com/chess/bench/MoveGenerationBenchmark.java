@@ -0,0 +1,117 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Benchmarks of the move generation hot paths - Piece.calculateLegalMoves, Board construction, Move.execute() and
+ * Player.makeMove(), MoveFactory.createMove() - on the starting position and on an opening middlegame, plus perft
+ * nodes per second.
+ *
+ * Usage: MoveGenerationBenchmark [warmupIterations] [measurementIterations] [iterationMillis]
+ */
+public final class MoveGenerationBenchmark {
+
+    // Italian game after both sides castled - more pieces can move than in the starting position.
+    private static final String[] MIDDLEGAME_MOVES = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "d2d3", "f8c5", "e1g1", "e8g8"};
+
+    private MoveGenerationBenchmark() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static void main(String[] args) {
+        final int warmupIterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final int measurementIterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final long iterationMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        final BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, measurementIterations, iterationMillis);
+
+        final Board standardBoard = Board.createStandardBoard();
+        benchmarkPosition(runner, "start", standardBoard);
+        benchmarkPosition(runner, "middlegame", playMoves(standardBoard, MIDDLEGAME_MOVES));
+
+        runner.run("perft(3) Board", () -> Perft.perft(standardBoard, 3));
+        runner.run("perft(3) MutableBoard", () -> Perft.perft(MutableBoard.fromBoard(standardBoard), 3));
+        System.out.println("(sink " + runner.getSink() + ")");
+    }
+
+    private static void benchmarkPosition(final BenchmarkRunner runner, final String name, final Board board) {
+        final List<Piece> pieces = new ArrayList<>(board.getWhitePieces());
+        pieces.addAll(board.getBlackPieces());
+        final List<Move> legalMoves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+
+        runner.run(name + " Piece.calculateLegalMoves", () -> {
+            long moves = 0;
+            for(final Piece piece : pieces) {
+                moves += piece.calculateLegalMoves(board).size();
+            }
+            return moves;
+        });
+        runner.run(name + " Board construction", () -> {
+            final Board.Builder builder = new Board.Builder();
+            for(final Piece piece : pieces) {
+                builder.setPiece(piece);
+            }
+            builder.setMoveMaker(board.getCurrentPlayer().getAlliance());
+            return builder.build().hashCode();
+        });
+        runner.run(name + " Board construction + legal moves", () -> {
+            final Board.Builder builder = new Board.Builder();
+            for(final Piece piece : pieces) {
+                builder.setPiece(piece);
+            }
+            builder.setMoveMaker(board.getCurrentPlayer().getAlliance());
+            return builder.build().getCurrentPlayer().getLegalMoves().size();
+        });
+        // One operation = one move, cycling through all legal moves of the position.
+        final int[] next = new int[1];
+        runner.run(name + " Move.execute", () -> {
+            final Move move = legalMoves.get(next[0]++ % legalMoves.size());
+            return move.execute().hashCode();
+        });
+        runner.run(name + " Player.makeMove", () -> {
+            final Move move = legalMoves.get(next[0]++ % legalMoves.size());
+            return board.getCurrentPlayer().makeMove(move).getMoveStatus().ordinal();
+        });
+        runner.run(name + " MoveFactory.createMove", () -> {
+            final Move move = legalMoves.get(next[0]++ % legalMoves.size());
+            return Move.MoveFactory.createMove(board, move.getCurrentCoordinate(), move.getDestinationCoordinate()).hashCode();
+        });
+    }
+
+    /**
+     * Plays moves given in coordinate notation ("e2e4") from the board.
+     * @param board
+     * @param moves
+     * @return
+     */
+    static Board playMoves(final Board board, final String... moves) {
+        Board current = board;
+        for(final String move : moves) {
+            current = playMove(current, move);
+        }
+        return current;
+    }
+
+    private static Board playMove(final Board board, final String coordinates) {
+        final int currentCoordinate = BoardUtils.getCoordinateAtPosition(coordinates.substring(0, 2));
+        final int destinationCoordinate = BoardUtils.getCoordinateAtPosition(coordinates.substring(2, 4));
+        final Collection<Move> legalMoves = board.getCurrentPlayer().getLegalMoves();
+        for(final Move move : legalMoves) {
+            if(move.getCurrentCoordinate() == currentCoordinate && move.getDestinationCoordinate() == destinationCoordinate) {
+                final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+                if(transition.getMoveStatus().isDone()) {
+                    return transition.getTransitionBoard();
+                }
+            }
+        }
+        throw new RuntimeException("Move " + coordinates + " is not legal");
+    }
+}
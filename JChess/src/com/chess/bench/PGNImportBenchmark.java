@@ -0,0 +1,93 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.pgn.PGNReader;
+import com.chess.pgn.PGNUtilities;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Games per second of PGNReader with 1, 2, 4 ... pool threads. Without a file a PGN of random games is written
+ * to a temporary file first (fixed seed, so every run reads the same games).
+ *
+ * Usage: PGNImportBenchmark [pgnFile | -randomGames] [maxThreads]
+ */
+public final class PGNImportBenchmark {
+
+    private static final int DEFAULT_RANDOM_GAMES = 2000;
+    private static final int MAX_RANDOM_GAME_PLIES = 120;
+
+    private PGNImportBenchmark() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path file;
+        if(args.length > 0 && !args[0].startsWith("-")) {
+            file = Paths.get(args[0]);
+        } else {
+            file = Files.createTempFile("random-games", ".pgn");
+            file.toFile().deleteOnExit();
+            writeRandomGames(file, args.length > 0 ? Integer.parseInt(args[0].substring(1)) : DEFAULT_RANDOM_GAMES);
+        }
+        final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        // Warmup, so the one thread baseline is not measured with interpreted code.
+        new PGNReader(ForkJoinPool.commonPool()).read(file, game -> { });
+
+        System.out.printf("%-8s %12s %10s %10s %12s%n", "threads", "ms", "games", "invalid", "games/s");
+        for(int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final PGNReader reader = new PGNReader(pool);
+                reader.read(file, game -> { });
+                System.out.printf("%-8d %12.1f %,10d %,10d %,12.0f%n", threads, reader.getElapsedNanos() / 1_000_000.0,
+                        reader.getGameCount(), reader.getInvalidGameCount(), reader.getGamesPerSecond());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static void writeRandomGames(final Path file, final int games) throws IOException {
+        final Random random = new Random(42);
+        try(final BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for(int game = 1; game <= games; game++) {
+                writer.write("[Event \"Random game\"]\n[Round \"" + game + "\"]\n[White \"random\"]\n[Black \"random\"]\n");
+                final StringBuilder movetext = new StringBuilder();
+                Board board = Board.createStandardBoard();
+                String result = "1/2-1/2";
+                for(int ply = 0; ply < MAX_RANDOM_GAME_PLIES; ply++) {
+                    final List<MoveTransition> transitions = new ArrayList<>();
+                    for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+                        final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+                        if(transition.getMoveStatus().isDone()) {
+                            transitions.add(transition);
+                        }
+                    }
+                    if(transitions.isEmpty()) {
+                        result = !board.getCurrentPlayer().isInCheck() ? "1/2-1/2" :
+                                 board.getCurrentPlayer().getAlliance().isWhite() ? "0-1" : "1-0";
+                        break;
+                    }
+                    final MoveTransition transition = transitions.get(random.nextInt(transitions.size()));
+                    if(ply % 2 == 0) {
+                        movetext.append(ply / 2 + 1).append(". ");
+                    }
+                    movetext.append(PGNUtilities.createSAN(board, transition.getMove())).append(ply % 16 == 15 ? '\n' : ' ');
+                    board = transition.getTransitionBoard();
+                }
+                writer.write("[Result \"" + result + "\"]\n\n" + movetext + result + "\n\n");
+            }
+        }
+    }
+}
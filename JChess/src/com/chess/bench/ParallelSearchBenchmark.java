@@ -0,0 +1,55 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.ai.LazySmpSearch;
+import com.chess.engine.player.ai.TranspositionTable;
+
+/**
+ * Time to depth of LazySmpSearch with 1, 2, 4 ... threads, and the speedup over one thread. Every run starts with
+ * an empty transposition table, so runs do not profit from each other.
+ *
+ * Usage: ParallelSearchBenchmark [maxThreads] [depth] [hashMegabytes] [runs]
+ */
+public final class ParallelSearchBenchmark {
+
+    // Ruy Lopez, closed - a quiet middlegame with a wide tree.
+    private static final String[] MIDDLEGAME_MOVES = {"e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6", "b5a4", "g8f6",
+                                                      "e1g1", "f8e7", "f1e1", "b7b5", "a4b3", "d7d6", "c2c3", "e8g8"};
+
+    private ParallelSearchBenchmark() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static void main(String[] args) {
+        final int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final int depth = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        final int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        final int runs = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        final Board board = MoveGenerationBenchmark.playMoves(Board.createStandardBoard(), MIDDLEGAME_MOVES);
+        final TranspositionTable transpositionTable = new TranspositionTable(hashMegabytes);
+        // Warmup, so the one thread baseline is not measured with interpreted code.
+        new LazySmpSearch(1, depth - 1, Long.MAX_VALUE, transpositionTable).search(board);
+
+        System.out.printf("%-8s %12s %15s %12s %10s%n", "threads", "ms", "nodes", "nodes/s", "speedup");
+        double baselineMillis = 0;
+        for(int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            long totalNanos = 0;
+            long totalNodes = 0;
+            for(int run = 0; run < runs; run++) {
+                transpositionTable.clear();
+                final LazySmpSearch search = new LazySmpSearch(threads, depth, Long.MAX_VALUE, transpositionTable);
+                final long startTime = System.nanoTime();
+                search.search(board);
+                totalNanos += System.nanoTime() - startTime;
+                totalNodes += search.getNodesSearched();
+            }
+            final double millis = totalNanos / 1_000_000.0 / runs;
+            if(threads == 1) {
+                baselineMillis = millis;
+            }
+            System.out.printf("%-8d %12.1f %,15d %,12d %10.2f%n", threads, millis, totalNodes / runs,
+                    totalNodes * 1_000_000_000L / Math.max(1, totalNanos), baselineMillis / millis);
+        }
+    }
+}
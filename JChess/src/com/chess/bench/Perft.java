@@ -0,0 +1,162 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.MoveTransition;
+import com.chess.pgn.FenUtilities;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Perft - counts leaf nodes of the legal move tree to a fixed depth. The numbers for well known positions are
+ * published, so any difference means a bug in move generation (or in making moves).
+ *
+ * Runs through the immutable Board API (Player.makeMove) and through MutableBoard (makeMove / unmakeMove),
+ * and prints node counts, nodes per second and bytes allocated per node for both, for the starting position and
+ * the other standard perft test positions (castling, en passant and promotion corner cases).
+ *
+ * Usage: Perft [depth]
+ */
+public final class Perft {
+
+    // FEN and published leaf counts, index = depth.
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", // "Kiwipete"
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+    private static final long[][] POSITION_NODES = {
+            {1, 20, 400, 8902, 197281, 4865609, 119060324},
+            {1, 48, 2039, 97862, 4085603, 193690690},
+            {1, 14, 191, 2812, 43238, 674624, 11030083},
+            {1, 6, 264, 9467, 422333, 15833292},
+            {1, 44, 1486, 62379, 2103487, 89941194},
+            {1, 46, 2079, 89890, 3894594, 164075551}
+    };
+
+    private static final int MAX_MOVES = 256;
+
+    private Perft() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    /**
+     * Leaf node count through Board / Player / MoveTransition.
+     * @param board
+     * @param depth
+     * @return
+     */
+    public static long perft(final Board board, final int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()) {
+                nodes += depth == 1 ? 1 : perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Leaf node count through MutableBoard. The board is back in its original state when this returns.
+     * @param board
+     * @param depth
+     * @return
+     */
+    public static long perft(final MutableBoard board, final int depth) {
+        return perft(board, depth, new int[depth + 1][MAX_MOVES]);
+    }
+
+    private static long perft(final MutableBoard board, final int depth, final int[][] moveBuffers) {
+        if(depth == 0) {
+            return 1;
+        }
+        final int[] moves = moveBuffers[depth];
+        final int moveCount = board.generateLegalMoves(moves);
+        if(depth == 1) {
+            return moveCount;
+        }
+        long nodes = 0;
+        for(int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(board, depth - 1, moveBuffers);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Node count per root move (e.g. "e2e4" -> 8102), handy to find which move a bug hides under.
+     * @param board
+     * @param depth at least 1
+     * @return
+     */
+    public static Map<String, Long> divide(final MutableBoard board, final int depth) {
+        final Map<String, Long> result = new TreeMap<>();
+        final int[] moves = new int[MAX_MOVES];
+        final int moveCount = board.generateLegalMoves(moves);
+        for(int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            result.put(PackedMove.toString(moves[i]), perft(board, depth - 1));
+            board.unmakeMove();
+        }
+        return result;
+    }
+
+    /**
+     * Same as divide(MutableBoard, int) through the Board API - comparing the two points at a broken move.
+     * @param board
+     * @param depth at least 1
+     * @return
+     */
+    public static Map<String, Long> divide(final Board board, final int depth) {
+        final Map<String, Long> result = new TreeMap<>();
+        for(final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()) {
+                String name = BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+                              BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate());
+                if(move instanceof Move.PawnPromotion) {
+                    name += ((Move.PawnPromotion) move).getPromotionType().toString().toLowerCase();
+                }
+                result.put(name, perft(transition.getTransitionBoard(), depth - 1));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        for(int position = 0; position < POSITIONS.length; position++) {
+            final Board board = FenUtilities.createGameFromFEN(POSITIONS[position]);
+            System.out.println(POSITIONS[position]);
+            for(int depth = 1; depth <= maxDepth && depth < POSITION_NODES[position].length; depth++) {
+                final int searchDepth = depth;
+                report("Board        ", depth, POSITION_NODES[position][depth], () -> perft(board, searchDepth));
+                report("MutableBoard ", depth, POSITION_NODES[position][depth], () -> perft(MutableBoard.fromBoard(board), searchDepth));
+            }
+        }
+    }
+
+    private static void report(final String name, final int depth, final long expectedNodes, final LongSupplier perft) {
+        final long startBytes = BenchmarkRunner.allocatedBytes();
+        final long startTime = System.nanoTime();
+        final long nodes = perft.getAsLong();
+        final long elapsed = Math.max(1, System.nanoTime() - startTime);
+        final long allocated = BenchmarkRunner.allocatedBytes() - startBytes;
+        System.out.printf("%s depth %d: %,d nodes%s  %,d nodes/s  %,d B/node%n", name, depth, nodes,
+                nodes == expectedNodes ? "" : " (EXPECTED " + expectedNodes + ")",
+                nodes * 1_000_000_000L / elapsed, allocated / Math.max(1, nodes));
+    }
+}
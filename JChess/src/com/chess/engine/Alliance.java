@@ -1,5 +1,6 @@
 package com.chess.engine;
 
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
@@ -26,6 +27,11 @@ public enum Alliance {
                                    BlackPlayer bPlayer) {
             return wPlayer;
         }
+
+        @Override
+        public boolean isPawnPromotionSquare(final int position) {
+            return BoardUtils.FIRST_ROW[position]; // White pawns promote on the top row (tiles 0 - 7).
+        }
     },
     BLACK {
         @Override
@@ -48,6 +54,11 @@ public enum Alliance {
                                    BlackPlayer bPlayer) {
             return bPlayer;
         }
+
+        @Override
+        public boolean isPawnPromotionSquare(final int position) {
+            return BoardUtils.EIGHTH_ROW[position];
+        }
     };
 
     public abstract int getDirection();
@@ -55,4 +66,5 @@ public enum Alliance {
     public abstract boolean isBlack();
 
     public abstract Player choosePlayer(WhitePlayer wPlayer, BlackPlayer bPlayer);
+    public abstract boolean isPawnPromotionSquare(int position);
 }
@@ -0,0 +1,146 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+/**
+ * Tiles attacked by a Knight, King or Pawn standing on a tile, computed once at class load. Move generation looks
+ * them up instead of adding offsets and checking every one for wrapping around the board edge.
+ *
+ * Every table comes twice - as a bitboard (bit N = tile N, for MutableBoard / BitBoard) and as an array of
+ * destination tiles (for Piece.calculateLegalMoves). The arrays are shared, never modify them.
+ */
+public final class AttackTables {
+
+    private static final int[][] KNIGHT_OFFSETS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    // Indexed by Alliance ordinal - White pawns attack towards row 0, Black pawns towards row 7.
+    private static final int[][][] PAWN_OFFSETS = {{{-1, -1}, {-1, 1}}, {{1, -1}, {1, 1}}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] KING_ATTACKS = new long[BoardUtils.NUM_TILES];
+    private static final long[][] PAWN_ATTACKS = new long[2][BoardUtils.NUM_TILES];
+    private static final int[][] KNIGHT_DESTINATIONS = new int[BoardUtils.NUM_TILES][];
+    private static final int[][] KING_DESTINATIONS = new int[BoardUtils.NUM_TILES][];
+    private static final int[][][] PAWN_DESTINATIONS = new int[2][BoardUtils.NUM_TILES][];
+    // Indexed by two tiles on one row, column or diagonal (0 when they are not) - legality checks use them for pins.
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    static {
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            KNIGHT_ATTACKS[tile] = attacks(tile, KNIGHT_OFFSETS);
+            KNIGHT_DESTINATIONS[tile] = toTiles(KNIGHT_ATTACKS[tile]);
+            KING_ATTACKS[tile] = attacks(tile, KING_OFFSETS);
+            KING_DESTINATIONS[tile] = toTiles(KING_ATTACKS[tile]);
+            for(int side = 0; side < PAWN_OFFSETS.length; side++) {
+                PAWN_ATTACKS[side][tile] = attacks(tile, PAWN_OFFSETS[side]);
+                PAWN_DESTINATIONS[side][tile] = toTiles(PAWN_ATTACKS[side][tile]);
+            }
+            for(final int[] direction : KING_OFFSETS) {
+                initLines(tile, direction);
+            }
+        }
+    }
+
+    // Walks from the tile in the direction to the board edge, filling BETWEEN and LINE for every tile passed.
+    private static void initLines(final int tile, final int[] direction) {
+        final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+        final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+        // Whole line - both directions from the tile, the tile itself included.
+        long line = 1L << tile;
+        for(int sign = -1; sign <= 1; sign += 2) {
+            for(int r = row + sign * direction[0], c = column + sign * direction[1];
+                r >= 0 && r < BoardUtils.NUM_TILES_PER_ROW && c >= 0 && c < BoardUtils.NUM_TILES_PER_ROW;
+                r += sign * direction[0], c += sign * direction[1]) {
+                line |= 1L << (r * BoardUtils.NUM_TILES_PER_ROW + c);
+            }
+        }
+        long between = 0L;
+        for(int r = row + direction[0], c = column + direction[1];
+            r >= 0 && r < BoardUtils.NUM_TILES_PER_ROW && c >= 0 && c < BoardUtils.NUM_TILES_PER_ROW;
+            r += direction[0], c += direction[1]) {
+            final int target = r * BoardUtils.NUM_TILES_PER_ROW + c;
+            BETWEEN[tile][target] = between;
+            LINE[tile][target] = line;
+            between |= 1L << target;
+        }
+    }
+
+    private AttackTables() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    private static long attacks(final int tile, final int[][] offsets) {
+        final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+        final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+        long attacks = 0L;
+        for(final int[] offset : offsets) {
+            final int targetRow = row + offset[0];
+            final int targetColumn = column + offset[1];
+            if(targetRow >= 0 && targetRow < BoardUtils.NUM_TILES_PER_ROW &&
+               targetColumn >= 0 && targetColumn < BoardUtils.NUM_TILES_PER_ROW) {
+                attacks |= 1L << (targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn);
+            }
+        }
+        return attacks;
+    }
+
+    private static int[] toTiles(long bitBoard) {
+        final int[] tiles = new int[Long.bitCount(bitBoard)];
+        for(int i = 0; bitBoard != 0; i++) {
+            tiles[i] = Long.numberOfTrailingZeros(bitBoard);
+            bitBoard &= bitBoard - 1;
+        }
+        return tiles;
+    }
+
+    public static long knightAttacks(final int tile) {
+        return KNIGHT_ATTACKS[tile];
+    }
+
+    public static long kingAttacks(final int tile) {
+        return KING_ATTACKS[tile];
+    }
+
+    /**
+     * Tiles a pawn of the side on the tile attacks (diagonally forward).
+     * @param side MutableBoard.WHITE / BLACK
+     * @param tile
+     * @return
+     */
+    public static long pawnAttacks(final int side, final int tile) {
+        return PAWN_ATTACKS[side][tile];
+    }
+
+    /**
+     * Tiles strictly between two tiles on one row, column or diagonal - where a check by a slider can be blocked.
+     * @param from
+     * @param to
+     * @return 0 when the tiles are not on one line (or next to each other)
+     */
+    public static long between(final int from, final int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * The whole row, column or diagonal through both tiles, edge to edge - a pinned piece stays on it.
+     * @param from
+     * @param to
+     * @return 0 when the tiles are not on one line
+     */
+    public static long line(final int from, final int to) {
+        return LINE[from][to];
+    }
+
+    public static int[] knightDestinations(final int tile) {
+        return KNIGHT_DESTINATIONS[tile];
+    }
+
+    public static int[] kingDestinations(final int tile) {
+        return KING_DESTINATIONS[tile];
+    }
+
+    public static int[] pawnAttackDestinations(final Alliance alliance, final int tile) {
+        return PAWN_DESTINATIONS[alliance.ordinal()][tile];
+    }
+}
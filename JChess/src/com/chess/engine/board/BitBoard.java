@@ -0,0 +1,207 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard form of a position - one 64 bit 'long' per piece type per Alliance (12 in total).
+ * Bit N of a long is set when tile N (same numbering as in Board) holds that piece.
+ *
+ * Occupancy masks for both sides are kept next to the piece longs, so "is this tile taken" or
+ * "which tiles does white hold" are single bitwise operations instead of tile-by-tile scans.
+ * Castling rights and the en passant tile are kept too, so toBoard() gives back the same position.
+ */
+public final class BitBoard {
+
+    private static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    private final long[] pieceBitBoards; // Indexed by alliance * NUM_PIECE_TYPES + piece type.
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final Alliance nextMoveMaker;
+    private final int castlingRights; // MutableBoard.WHITE_KING_SIDE etc.
+    private final int enPassantTile; // Tile the last pawn jumped over, MutableBoard.NO_SQUARE without one.
+
+    private BitBoard(final long[] pieceBitBoards,
+                     final Alliance nextMoveMaker,
+                     final int castlingRights,
+                     final int enPassantTile) {
+        this.pieceBitBoards = pieceBitBoards;
+        this.nextMoveMaker = nextMoveMaker;
+        this.castlingRights = castlingRights;
+        this.enPassantTile = enPassantTile;
+        long white = 0L;
+        long black = 0L;
+        for(int i = 0; i < NUM_PIECE_TYPES; i++) {
+            white |= pieceBitBoards[i];
+            black |= pieceBitBoards[NUM_PIECE_TYPES + i];
+        }
+        this.whiteOccupancy = white;
+        this.blackOccupancy = black;
+    }
+
+    /**
+     * Builds the bitboards from the pieces of an existing board.
+     * @param board
+     * @return
+     */
+    public static BitBoard fromBoard(final Board board) {
+        return board.getBitBoard();
+    }
+
+    // Used by Board constructor - reads the pieces straight from the builder config, no Tile objects needed.
+    static BitBoard fromPieces(final Iterable<Piece> pieces,
+                               final Alliance nextMoveMaker,
+                               final int castlingRights,
+                               final int enPassantTile) {
+        final long[] pieceBitBoards = new long[ALLIANCES.length * NUM_PIECE_TYPES];
+        for(final Piece piece : pieces) {
+            pieceBitBoards[index(piece.getPieceAlliance(), piece.getPieceType())] |= 1L << piece.getPiecePosition();
+        }
+        return new BitBoard(pieceBitBoards, nextMoveMaker, castlingRights, enPassantTile);
+    }
+
+    /**
+     * Converts the bitboards back into an immutable Board (tiles, pieces and players). Board keeps castling rights
+     * as first move flags of King and Rooks, so only those on their home tiles with the matching right come back
+     * unmoved - and pawns on their start row. Same rules as FenUtilities.
+     * @return
+     */
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for(int i = 0; i < this.pieceBitBoards.length; i++) {
+            final Alliance alliance = ALLIANCES[i / NUM_PIECE_TYPES];
+            final Piece.PieceType pieceType = PIECE_TYPES[i % NUM_PIECE_TYPES];
+            long pieces = this.pieceBitBoards[i];
+            // Visit every set bit - lowest one first, then clear it.
+            while(pieces != 0) {
+                final int tile = Long.numberOfTrailingZeros(pieces);
+                builder.setPiece(pieceType.createPiece(tile, alliance, isFirstMove(tile, alliance, pieceType)));
+                pieces &= pieces - 1;
+            }
+        }
+        builder.setMoveMaker(this.nextMoveMaker);
+        if(this.enPassantTile != MutableBoard.NO_SQUARE) {
+            // The pawn which jumped belongs to the side not on move and stands one row past the tile it jumped over.
+            final int pawnTile = this.nextMoveMaker.isWhite() ? this.enPassantTile + BoardUtils.NUM_TILES_PER_ROW :
+                                                                this.enPassantTile - BoardUtils.NUM_TILES_PER_ROW;
+            final Alliance pawnAlliance = this.nextMoveMaker.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+            if((getPieces(pawnAlliance, Piece.PieceType.PAWN) & (1L << pawnTile)) != 0) {
+                builder.setEnPassantPawn(new Pawn(pawnTile, pawnAlliance, false));
+            }
+        }
+        return builder.build();
+    }
+
+    private boolean isFirstMove(final int tile, final Alliance alliance, final Piece.PieceType pieceType) {
+        final boolean white = alliance.isWhite();
+        switch(pieceType) {
+            case PAWN:
+                return white ? BoardUtils.SEVENTH_ROW[tile] : BoardUtils.SECOND_ROW[tile];
+            case KING:
+                return tile == (white ? 60 : 4) &&
+                       (this.castlingRights & (white ? MutableBoard.WHITE_KING_SIDE | MutableBoard.WHITE_QUEEN_SIDE :
+                                                       MutableBoard.BLACK_KING_SIDE | MutableBoard.BLACK_QUEEN_SIDE)) != 0;
+            case ROOK:
+                return (tile == 63 && white && (this.castlingRights & MutableBoard.WHITE_KING_SIDE) != 0) ||
+                       (tile == 56 && white && (this.castlingRights & MutableBoard.WHITE_QUEEN_SIDE) != 0) ||
+                       (tile == 7 && !white && (this.castlingRights & MutableBoard.BLACK_KING_SIDE) != 0) ||
+                       (tile == 0 && !white && (this.castlingRights & MutableBoard.BLACK_QUEEN_SIDE) != 0);
+            default:
+                return false;
+        }
+    }
+
+    private static int index(final Alliance alliance, final Piece.PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public long getPieces(final Alliance alliance, final Piece.PieceType pieceType) {
+        return this.pieceBitBoards[index(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    // All occupied tiles - both sides.
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    public boolean isTileOccupied(final int tileCoordinate) {
+        return (getOccupancy() & (1L << tileCoordinate)) != 0;
+    }
+
+    /**
+     * Returns alliance of the piece on the tile or null when the tile is empty.
+     * @param tileCoordinate
+     * @return
+     */
+    public Alliance getAlliance(final int tileCoordinate) {
+        final long tileMask = 1L << tileCoordinate;
+        if((this.whiteOccupancy & tileMask) != 0) {
+            return Alliance.WHITE;
+        }
+        return (this.blackOccupancy & tileMask) != 0 ? Alliance.BLACK : null;
+    }
+
+    /**
+     * Returns type of the piece on the tile or null when the tile is empty.
+     * @param tileCoordinate
+     * @return
+     */
+    public Piece.PieceType getPieceType(final int tileCoordinate) {
+        final long tileMask = 1L << tileCoordinate;
+        for(int i = 0; i < this.pieceBitBoards.length; i++) {
+            if((this.pieceBitBoards[i] & tileMask) != 0) {
+                return PIECE_TYPES[i % NUM_PIECE_TYPES];
+            }
+        }
+        return null;
+    }
+
+    public Alliance getNextMoveMaker() {
+        return this.nextMoveMaker;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    // Tile the last pawn jumped over, MutableBoard.NO_SQUARE without one.
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+
+    // Same pieces on the same tiles and same side to move - castling rights and en passant tile not compared.
+    boolean hasSamePieces(final BitBoard other) {
+        return this.nextMoveMaker == other.nextMoveMaker && Arrays.equals(this.pieceBitBoards, other.pieceBitBoards);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof BitBoard)) {
+            return false;
+        }
+        final BitBoard otherBitBoard = (BitBoard) other;
+        return this.nextMoveMaker == otherBitBoard.nextMoveMaker &&
+                this.castlingRights == otherBitBoard.castlingRights &&
+                this.enPassantTile == otherBitBoard.enPassantTile &&
+                Arrays.equals(this.pieceBitBoards, otherBitBoard.pieceBitBoards);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * Arrays.hashCode(this.pieceBitBoards) + this.nextMoveMaker.hashCode()) +
+                     this.castlingRights) + this.enPassantTile;
+    }
+}
@@ -31,20 +31,76 @@ public class Board {
         private final WhitePlayer wPlayer;
         private final BlackPlayer bPlayer;
         private final Player currentPlayer;
+        private final BitBoard bitBoard;
+        private final Pawn enPassantPawn;
+        private final int castlingRights;
+        private final long zobristKey;
+        private final int halfmoveClock;
+        private final int fullmoveNumber;
+        // Move lists are calculated on first use only - plenty of boards are just printed or looked at.
+        private volatile Collection<Move> whiteStandardLegalMoves;
+        private volatile Collection<Move> blackStandardLegalMoves;
+        // Pieces giving check to the side to move - calculated on first use, UNKNOWN_CHECKERS until then.
+        private volatile long checkers = UNKNOWN_CHECKERS;
+        // Pieces of the side to move pinned to their King - calculated on first use, UNKNOWN_CHECKERS until then.
+        private volatile long pinnedPieces = UNKNOWN_CHECKERS;
+        // Legal moves of the side to move by (from, to, promotion) for MoveFactory - built on first lookup.
+        private volatile MoveIndex moveIndex;
+
+        // No position has all 64 tiles attacking the King, so all bits set is free as "not calculated yet".
+        private static final long UNKNOWN_CHECKERS = -1L;
 
         private Board(final Builder builder) {
             this.gameBoard = createGameBoard(builder);
+            this.enPassantPawn = builder.enPassantPawn;
             this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
             this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+            this.castlingRights = calculateCastlingRights();
+            this.bitBoard = BitBoard.fromPieces(builder.boardConfig.values(), builder.nextMoveMaker,
+                                                this.castlingRights, getEnPassantTile());
+            this.zobristKey = builder.transitionMove != null ? calculateZobristKey(builder.transitionMove) : calculateZobristKey();
+            if(builder.transitionMove != null) {
+                // Pawn moves and captures cannot be undone - fifty move counting starts again.
+                final Move transitionMove = builder.transitionMove;
+                final Board previousBoard = transitionMove.board;
+                this.halfmoveClock = transitionMove.getMovedPiece().getPieceType() == Piece.PieceType.PAWN || transitionMove.isAttack() ?
+                        0 : previousBoard.halfmoveClock + 1;
+                this.fullmoveNumber = previousBoard.fullmoveNumber + (builder.nextMoveMaker.isWhite() ? 1 : 0);
+            } else {
+                this.halfmoveClock = builder.halfmoveClock;
+                this.fullmoveNumber = builder.fullmoveNumber;
+            }
 
-            final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-            final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-            this.wPlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-            this.bPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+            this.wPlayer = new WhitePlayer(this);
+            this.bPlayer = new BlackPlayer(this);
             this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.wPlayer, this.bPlayer);
         }
 
+        /**
+        * Boards are equal when the positions are - same pieces on same tiles, side to move, castling rights and
+        * en passant tile if a pawn can capture there (as the repetition rule counts positions). Zobrist keys are
+        * compared first, so different positions are told apart quickly.
+        */
+        @Override
+        public boolean equals(final Object other) {
+            if(this == other) {
+                return true;
+            }
+            if(!(other instanceof Board)) {
+                return false;
+            }
+            final Board otherBoard = (Board) other;
+            return this.zobristKey == otherBoard.zobristKey &&
+                    this.castlingRights == otherBoard.castlingRights &&
+                    this.bitBoard.hasSamePieces(otherBoard.bitBoard) &&
+                    getCapturableEnPassantTile() == otherBoard.getCapturableEnPassantTile();
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.zobristKey);
+        }
+
         @Override
         public String toString() {
             final StringBuilder builder = new StringBuilder();
@@ -70,6 +126,105 @@ public class Board {
         public Player getCurrentPlayer() {
             return this.currentPlayer;
         }
+
+        /**
+        * Pawn which made a 'Pawn Jump' in the last move and can be captured en passant, null otherwise.
+        * @return
+        */
+        public Pawn getEnPassantPawn() {
+            return this.enPassantPawn;
+        }
+
+        /**
+        * Castling rights as MutableBoard.WHITE_KING_SIDE ... bits - King and Rook still on their first move.
+        * @return
+        */
+        public int getCastlingRights() {
+            return this.castlingRights;
+        }
+
+        /**
+        * 64 bit Zobrist key of the position (see ZobristKeys).
+        * @return
+        */
+        public long getZobristKey() {
+            return this.zobristKey;
+        }
+
+        /**
+        * Moves since the last capture or pawn move (fifty move rule).
+        * @return
+        */
+        public int getHalfmoveClock() {
+            return this.halfmoveClock;
+        }
+
+        /**
+        * Number of the current move, starts at 1 and grows after every Black move.
+        * @return
+        */
+        public int getFullmoveNumber() {
+            return this.fullmoveNumber;
+        }
+
+        private int calculateCastlingRights() {
+            return (hasCastlingPieces(60, 63) ? MutableBoard.WHITE_KING_SIDE : 0) |
+                   (hasCastlingPieces(60, 56) ? MutableBoard.WHITE_QUEEN_SIDE : 0) |
+                   (hasCastlingPieces(4, 7) ? MutableBoard.BLACK_KING_SIDE : 0) |
+                   (hasCastlingPieces(4, 0) ? MutableBoard.BLACK_QUEEN_SIDE : 0);
+        }
+
+        private boolean hasCastlingPieces(final int kingTile, final int rookTile) {
+            final Piece king = this.gameBoard.get(kingTile).getPiece();
+            final Piece rook = this.gameBoard.get(rookTile).getPiece();
+            return king != null && rook != null && king.getPieceType().isKing() && rook.getPieceType().isRook() &&
+                    king.getPieceAlliance() == rook.getPieceAlliance() && king.isFirstMove() && rook.isFirstMove();
+        }
+
+        // Tile the en passant pawn jumped over, MutableBoard.NO_SQUARE without one.
+        private int getEnPassantTile() {
+            if(this.enPassantPawn == null) {
+                return MutableBoard.NO_SQUARE;
+            }
+            return this.enPassantPawn.getPiecePosition() - this.enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        }
+
+        // En passant tile when a pawn of the side to move can capture there, MutableBoard.NO_SQUARE otherwise - only
+        // then is it part of the position (Zobrist key, equals).
+        private int getCapturableEnPassantTile() {
+            final int enPassantTile = getEnPassantTile();
+            if(enPassantTile == MutableBoard.NO_SQUARE) {
+                return MutableBoard.NO_SQUARE;
+            }
+            final Alliance us = this.bitBoard.getNextMoveMaker();
+            final long capturers = AttackTables.pawnAttacks(us.ordinal() ^ 1, enPassantTile) & this.bitBoard.getPieces(us, Piece.PieceType.PAWN);
+            return capturers != 0 ? enPassantTile : MutableBoard.NO_SQUARE;
+        }
+
+        // Full calculation - only for boards which were not created by a move.
+        private long calculateZobristKey() {
+            long key = 0L;
+            for(final Piece piece : this.whitePieces) {
+                key ^= ZobristKeys.pieceKey(MutableBoard.pieceCode(piece), piece.getPiecePosition());
+            }
+            for(final Piece piece : this.blackPieces) {
+                key ^= ZobristKeys.pieceKey(MutableBoard.pieceCode(piece), piece.getPiecePosition());
+            }
+            if(this.bitBoard.getNextMoveMaker().isBlack()) {
+                key ^= ZobristKeys.blackToMoveKey();
+            }
+            return key ^ ZobristKeys.castlingKey(this.castlingRights) ^ ZobristKeys.enPassantKey(getCapturableEnPassantTile());
+        }
+
+        // Incremental calculation - previous board key with the changes of the move XORed in.
+        private long calculateZobristKey(final Move transitionMove) {
+            final Board previousBoard = transitionMove.board;
+            return previousBoard.zobristKey ^
+                   transitionMove.getZobristPieceDelta() ^
+                   ZobristKeys.blackToMoveKey() ^ // Side to move always changes.
+                   ZobristKeys.castlingKey(previousBoard.castlingRights) ^ ZobristKeys.castlingKey(this.castlingRights) ^
+                   ZobristKeys.enPassantKey(previousBoard.getCapturableEnPassantTile()) ^ ZobristKeys.enPassantKey(getCapturableEnPassantTile());
+        }
         /**
         * Method to pass the black pieces collection to player class.
         * @return
@@ -86,6 +241,33 @@ public class Board {
             return this.whitePieces;
         }
 
+        /**
+        * Moves of all white pieces (castling not included). Calculated on first call, then kept for this board.
+        * Two threads may both calculate it the first time - the lists are equal, so it does not matter which one stays.
+        * @return
+        */
+        public Collection<Move> getWhiteStandardLegalMoves() {
+            Collection<Move> legalMoves = this.whiteStandardLegalMoves;
+            if(legalMoves == null) {
+                legalMoves = calculateLegalMoves(this.whitePieces);
+                this.whiteStandardLegalMoves = legalMoves;
+            }
+            return legalMoves;
+        }
+
+        /**
+        * Moves of all black pieces (castling not included). Calculated on first call, then kept for this board.
+        * @return
+        */
+        public Collection<Move> getBlackStandardLegalMoves() {
+            Collection<Move> legalMoves = this.blackStandardLegalMoves;
+            if(legalMoves == null) {
+                legalMoves = calculateLegalMoves(this.blackPieces);
+                this.blackStandardLegalMoves = legalMoves;
+            }
+            return legalMoves;
+        }
+
         private Collection<Move> calculateLegalMoves(final Collection<Piece> piecesCollection) {
             final List<Move> legalMoves = new ArrayList<>();
             for(final Piece piece : piecesCollection) {
@@ -110,6 +292,149 @@ public class Board {
                 return Collections.unmodifiableList(activePieces);
         }
 
+        /**
+        * Bitboard form of this board - occupancy checks are a single mask test.
+        * @return
+        */
+        public BitBoard getBitBoard() {
+            return this.bitBoard;
+        }
+
+        /**
+        * Checks whether any piece of the alliance attacks the tile (empty or not). Looks outward from the tile -
+        * table lookups for pawns, knights and King, one magic lookup per slider direction set - instead of
+        * generating the moves of the whole army.
+        * @param tile
+        * @param byAlliance
+        * @return
+        */
+        public boolean isSquareAttacked(final int tile, final Alliance byAlliance) {
+            return getAttackers(tile, byAlliance) != 0L;
+        }
+
+        /**
+        * Bitboard of the pieces of the alliance which attack the tile.
+        * @param tile
+        * @param byAlliance
+        * @return
+        */
+        public long getAttackers(final int tile, final Alliance byAlliance) {
+            return getAttackers(tile, byAlliance, this.bitBoard.getOccupancy());
+        }
+
+        // Attackers with the given occupancy blocking the sliders - for tiles seen through a piece about to move.
+        private long getAttackers(final int tile, final Alliance byAlliance, final long occupancy) {
+            final BitBoard pieces = this.bitBoard;
+            final long queens = pieces.getPieces(byAlliance, Piece.PieceType.QUEEN);
+            // Attacks are symmetric - a pawn of the other side on the tile attacks exactly the tiles attacking pawns stand on.
+            return (AttackTables.pawnAttacks(byAlliance.ordinal() ^ 1, tile) & pieces.getPieces(byAlliance, Piece.PieceType.PAWN)) |
+                   (AttackTables.knightAttacks(tile) & pieces.getPieces(byAlliance, Piece.PieceType.KNIGHT)) |
+                   (AttackTables.kingAttacks(tile) & pieces.getPieces(byAlliance, Piece.PieceType.KING)) |
+                   (SlidingAttacks.rookAttacks(tile, occupancy) & (pieces.getPieces(byAlliance, Piece.PieceType.ROOK) | queens)) |
+                   (SlidingAttacks.bishopAttacks(tile, occupancy) & (pieces.getPieces(byAlliance, Piece.PieceType.BISHOP) | queens));
+        }
+
+        /**
+        * Bitboard of the opponent's pieces giving check to the side to move, 0 when not in check.
+        * Calculated on first call, then kept for this board.
+        * @return
+        */
+        public long getCheckers() {
+            long checkers = this.checkers;
+            if(checkers == UNKNOWN_CHECKERS) {
+                final Alliance sideToMove = this.bitBoard.getNextMoveMaker();
+                final long king = this.bitBoard.getPieces(sideToMove, Piece.PieceType.KING);
+                checkers = king == 0L ? 0L : getAttackers(Long.numberOfTrailingZeros(king), sideToMove.isWhite() ? Alliance.BLACK : Alliance.WHITE);
+                this.checkers = checkers;
+            }
+            return checkers;
+        }
+
+        /**
+        * Pieces of the side to move which are the only piece between their King and an opponent slider.
+        * Calculated on first call, then kept for this board.
+        * @return
+        */
+        public long getPinnedPieces() {
+            long pinned = this.pinnedPieces;
+            if(pinned == UNKNOWN_CHECKERS) {
+                pinned = calculatePinnedPieces(this.bitBoard.getNextMoveMaker());
+                this.pinnedPieces = pinned;
+            }
+            return pinned;
+        }
+
+        private long calculatePinnedPieces(final Alliance alliance) {
+            final BitBoard pieces = this.bitBoard;
+            final long king = pieces.getPieces(alliance, Piece.PieceType.KING);
+            if(king == 0L) {
+                return 0L;
+            }
+            final int kingTile = Long.numberOfTrailingZeros(king);
+            final Alliance opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+            final long queens = pieces.getPieces(opponent, Piece.PieceType.QUEEN);
+            // Opponent sliders which would attack the King if the own pieces were not in the way.
+            long snipers = (SlidingAttacks.rookAttacks(kingTile, pieces.getOccupancy(opponent)) & (pieces.getPieces(opponent, Piece.PieceType.ROOK) | queens)) |
+                           (SlidingAttacks.bishopAttacks(kingTile, pieces.getOccupancy(opponent)) & (pieces.getPieces(opponent, Piece.PieceType.BISHOP) | queens));
+            long pinned = 0L;
+            while(snipers != 0L) {
+                final long blockers = AttackTables.between(kingTile, Long.numberOfTrailingZeros(snipers)) & pieces.getOccupancy();
+                if((blockers & (blockers - 1)) == 0L) {
+                    pinned |= blockers & pieces.getOccupancy(alliance);
+                }
+                snipers &= snipers - 1;
+            }
+            return pinned;
+        }
+
+        /**
+        * Checks whether a move of this board (Player.getLegalMoves(), which may leave the own King attacked) is
+        * legal, without executing it - from the checkers and pinned pieces of the moving side:
+        *  - the King may not step onto an attacked tile (sliders see through the tile it leaves),
+        *  - in check any other piece has to capture the checker or block the line to it, in double check it can not,
+        *  - a pinned piece moves along the line between its King and the pinning piece only,
+        *  - en passant removes two pieces from one row, so it checks the King directly.
+        * Castling moves are only created when legal.
+        * @param move
+        * @return
+        */
+        public boolean isLegalMove(final Move move) {
+            if(move.isCastleMove()) {
+                return true;
+            }
+            final Alliance alliance = move.getMovedPiece().getPieceAlliance();
+            final Alliance opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+            final BitBoard pieces = this.bitBoard;
+            final long king = pieces.getPieces(alliance, Piece.PieceType.KING);
+            if(king == 0L) {
+                return true;
+            }
+            final int kingTile = Long.numberOfTrailingZeros(king);
+            final int from = move.getCurrentCoordinate();
+            final int to = move.getDestinationCoordinate();
+            final long opponentPieces = pieces.getOccupancy(opponent);
+            if(from == kingTile) {
+                return (getAttackers(to, opponent, pieces.getOccupancy() ^ king) & ~(1L << to)) == 0L;
+            }
+            if(move instanceof Move.PawnEnPassantAttMove) {
+                final long captured = 1L << move.getAttackedPiece().getPiecePosition();
+                final long occupancy = (pieces.getOccupancy() ^ (1L << from) ^ captured) | (1L << to);
+                return (getAttackers(kingTile, opponent, occupancy) & opponentPieces & ~captured) == 0L;
+            }
+            final boolean sideToMove = alliance == pieces.getNextMoveMaker();
+            final long checkers = sideToMove ? getCheckers() : getAttackers(kingTile, opponent);
+            if(checkers != 0L) {
+                if((checkers & (checkers - 1)) != 0L) {
+                    return false;
+                }
+                if(((AttackTables.between(kingTile, Long.numberOfTrailingZeros(checkers)) | checkers) & (1L << to)) == 0L) {
+                    return false;
+                }
+            }
+            final long pinned = sideToMove ? getPinnedPieces() : calculatePinnedPieces(alliance);
+            return (pinned & (1L << from)) == 0L || (AttackTables.line(kingTile, from) & (1L << to)) != 0L;
+        }
+
         public Tile getTile(final int tileCoordinate) {
             return gameBoard.get(tileCoordinate);
             }
@@ -154,6 +479,36 @@ public class Board {
              return builder.build();
          }
 
+        /**
+        * Legal move of the side to move from one tile to another - a hash lookup, the move list is indexed once per board.
+        * @param currentCoordinate
+        * @param destinationCoordinate
+        * @param promotionType ignored for moves which are not promotions, null picks the Queen for promotions
+        * @return the move, Move.NULL_MOVE when the side to move has no such move
+        */
+        Move findMove(final int currentCoordinate, final int destinationCoordinate, final Piece.PieceType promotionType) {
+            return getMoveIndex().get(currentCoordinate, destinationCoordinate, promotionType);
+        }
+
+        /**
+        * Whether the move is one of the side to move's moves (Player.getLegalMoves()) - a hash lookup instead of a
+        * scan of the move list.
+        * @param move
+        * @return
+        */
+        public boolean isCurrentPlayerMove(final Move move) {
+            return getMoveIndex().contains(move);
+        }
+
+        private MoveIndex getMoveIndex() {
+            MoveIndex index = this.moveIndex;
+            if(index == null) {
+                index = new MoveIndex(this.currentPlayer.getLegalMoves());
+                this.moveIndex = index;
+            }
+            return index;
+        }
+
          public Collection<Move> getAllLegalMoves() {
              // Create new local variable
              ArrayList<Move> result = new ArrayList<>();
@@ -168,6 +523,10 @@ public class Board {
         public static class Builder {
              Map<Integer, Piece> boardConfig;
              Alliance nextMoveMaker;
+             Pawn enPassantPawn;
+             Move transitionMove;
+             int halfmoveClock;
+             int fullmoveNumber = 1;
 
             public Builder() {
 
@@ -189,10 +548,26 @@ public class Board {
             return new Board(this);
         }
 
-            // TODO
-            public void setEnPassantPawn(Pawn movedPawn) {
-                //this.enPassantPawn = movedPawn;
-                //return this;
+            public Builder setEnPassantPawn(final Pawn enPassantPawn) {
+                this.enPassantPawn = enPassantPawn;
+                return this;
+            }
+
+            // Move counters of a position which was not reached by a move (FEN, MutableBoard.toBoard) - moves keep them up to date.
+            public Builder setHalfmoveClock(final int halfmoveClock) {
+                this.halfmoveClock = halfmoveClock;
+                return this;
+            }
+
+            public Builder setFullmoveNumber(final int fullmoveNumber) {
+                this.fullmoveNumber = fullmoveNumber;
+                return this;
+            }
+
+            // Move which creates the board from the previous one - lets the board update the Zobrist key incrementally.
+            public Builder setMoveTransition(final Move transitionMove) {
+                this.transitionMove = transitionMove;
+                return this;
             }
         }
 }
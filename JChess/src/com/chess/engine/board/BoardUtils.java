@@ -10,8 +10,10 @@ public class BoardUtils {
     public static final boolean[] SEVENTH_COLUMN = initColumn(6);
     public static final boolean[] EIGHT_COLUMN = initColumn(7);
 
+    public static final boolean[] FIRST_ROW = initRow(0);
     public static final boolean[] SECOND_ROW = initRow(8);
     public static final boolean[] SEVENTH_ROW = initRow(48);
+    public static final boolean[] EIGHTH_ROW = initRow(56);
 
 
     public static final int NUM_TILES = 64;
@@ -51,4 +53,32 @@ public class BoardUtils {
     public static boolean isValidTileCoordinate(final int coordinate) {
         return coordinate >= 0 && coordinate < NUM_TILES; //Check if coordinate is not outside of the chessboard.
     }
+
+    /**
+     * Algebraic name of the tile, e.g. 0 -> "a8", 63 -> "h1".
+     * @param coordinate
+     * @return
+     */
+    public static String getPositionAtCoordinate(final int coordinate) {
+        final char file = (char) ('a' + coordinate % NUM_TILES_PER_ROW);
+        final int rank = NUM_TILES_PER_ROW - coordinate / NUM_TILES_PER_ROW;
+        return "" + file + rank;
+    }
+
+    /**
+     * Tile number for algebraic name, e.g. "e2" -> 52. Returns -1 for anything that is not a tile.
+     * @param position
+     * @return
+     */
+    public static int getCoordinateAtPosition(final String position) {
+        if(position == null || position.length() != 2) {
+            return -1;
+        }
+        final int file = position.charAt(0) - 'a';
+        final int rank = position.charAt(1) - '1';
+        if(file < 0 || file >= NUM_TILES_PER_ROW || rank < 0 || rank >= NUM_TILES_PER_ROW) {
+            return -1;
+        }
+        return (NUM_TILES_PER_ROW - 1 - rank) * NUM_TILES_PER_ROW + file;
+    }
 }
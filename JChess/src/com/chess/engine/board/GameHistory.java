@@ -0,0 +1,158 @@
+package com.chess.engine.board;
+
+/**
+ * Zobrist keys and halfmove clocks of the positions of a game, oldest first, for the draw rules - threefold
+ * repetition and the fifty move rule.
+ *
+ * Kept in a preallocated ring buffer, recording a position allocates nothing and the oldest positions are
+ * overwritten once it is full. Nothing is lost by that: a position can only repeat since the last pawn move or
+ * capture, so a repetition check looks back halfmove clock plies at most (every second one, the side to move has
+ * to be the same) - at most 50 key comparisons, however long the game is. The buffer always holds more than that.
+ *
+ * Used by a game arbiter with Board (record() after every move) and by the search with MutableBoard (record() after
+ * makeMove(), undo() after unmakeMove()). Not thread safe, every search thread has its own copy.
+ */
+public final class GameHistory {
+
+    // Plies without pawn move or capture after which the game is drawn.
+    public static final int FIFTY_MOVE_PLIES = 100;
+    private static final int DEFAULT_CAPACITY = 1024;
+    // Enough for the whole fifty move window and some more.
+    private static final int MIN_CAPACITY = 128;
+
+    private final long[] keys;
+    private final int[] halfmoveClocks;
+    private final int indexMask;
+    // Positions recorded so far - slots are size & indexMask, the ones before first were overwritten.
+    private int size;
+    private int first;
+
+    public GameHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity positions kept, rounded up to a power of two (at least 128)
+     */
+    public GameHistory(final int capacity) {
+        final int entryCount = Integer.highestOneBit(Math.max(capacity, MIN_CAPACITY) - 1) << 1;
+        this.keys = new long[entryCount];
+        this.halfmoveClocks = new int[entryCount];
+        this.indexMask = entryCount - 1;
+    }
+
+    /**
+     * Records the position reached on the board (the board keeps the halfmove clock through Move.execute()).
+     * @param board
+     */
+    public void record(final Board board) {
+        record(board.getZobristKey(), board.getHalfmoveClock());
+    }
+
+    public void record(final MutableBoard board) {
+        record(board.getZobristKey(), board.getHalfmoveClock());
+    }
+
+    public void record(final long zobristKey, final int halfmoveClock) {
+        final int index = this.size & this.indexMask;
+        this.keys[index] = zobristKey;
+        this.halfmoveClocks[index] = halfmoveClock;
+        this.size++;
+        this.first = Math.max(this.first, this.size - this.keys.length);
+    }
+
+    /**
+     * Forgets the last recorded position - the move to it was taken back.
+     */
+    public void undo() {
+        if(this.size == this.first) {
+            throw new RuntimeException("No position to undo");
+        }
+        this.size--;
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.first = 0;
+    }
+
+    /**
+     * Replaces this history by the positions of the other one (as many as fit).
+     * @param other
+     */
+    public void copyFrom(final GameHistory other) {
+        clear();
+        final int start = Math.max(other.first, other.size - this.keys.length);
+        for(int i = start; i < other.size; i++) {
+            record(other.keys[i & other.indexMask], other.halfmoveClocks[i & other.indexMask]);
+        }
+    }
+
+    // Positions recorded and not undone, overwritten ones included.
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == this.first;
+    }
+
+    // Key of the last recorded position.
+    public long getZobristKey() {
+        checkNotEmpty();
+        return this.keys[(this.size - 1) & this.indexMask];
+    }
+
+    // Halfmove clock of the last recorded position.
+    public int getHalfmoveClock() {
+        checkNotEmpty();
+        return this.halfmoveClocks[(this.size - 1) & this.indexMask];
+    }
+
+    /**
+     * How often the last recorded position occurred before in the game.
+     * @return 0 when it did not
+     */
+    public int getRepetitionCount() {
+        return countRepetitions(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Whether the last recorded position occurred before - the search scores that as a draw already, the side
+     * which could avoid the repetition would have done so the first time.
+     * @return
+     */
+    public boolean isRepetition() {
+        return countRepetitions(1) >= 1;
+    }
+
+    // Last recorded position on the board for the third time.
+    public boolean isThreefoldRepetition() {
+        return countRepetitions(2) >= 2;
+    }
+
+    // Fifty moves by each side without pawn move or capture.
+    public boolean isFiftyMoveDraw() {
+        return getHalfmoveClock() >= FIFTY_MOVE_PLIES;
+    }
+
+    // Earlier occurrences of the last position, counting stops at enough.
+    private int countRepetitions(final int enough) {
+        final int last = this.size - 1;
+        final long key = getZobristKey();
+        final int oldest = Math.max(this.first, last - getHalfmoveClock());
+        int repetitions = 0;
+        for(int i = last - 2; i >= oldest && repetitions < enough; i -= 2) {
+            if(this.keys[i & this.indexMask] == key) {
+                repetitions++;
+            }
+        }
+        return repetitions;
+    }
+
+    private void checkNotEmpty() {
+        if(isEmpty()) {
+            throw new RuntimeException("No position recorded");
+        }
+    }
+}
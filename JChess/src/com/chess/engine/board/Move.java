@@ -75,6 +75,22 @@ public abstract class Move {
         return null;    // To be overwritten in subclasses.
     }
 
+    /**
+     * XOR of the Zobrist piece keys this move changes - moved piece leaves its tile and lands on the destination,
+     * attacked piece (if any) is removed from its tile.
+     * @return
+     */
+    long getZobristPieceDelta() {
+        final int movedPieceCode = MutableBoard.pieceCode(this.movedPiece);
+        long delta = ZobristKeys.pieceKey(movedPieceCode, getCurrentCoordinate()) ^
+                     ZobristKeys.pieceKey(movedPieceCode, this.destinationCoordinate);
+        final Piece attackedPiece = getAttackedPiece();
+        if(attackedPiece != null) {
+            delta ^= ZobristKeys.pieceKey(MutableBoard.pieceCode(attackedPiece), attackedPiece.getPiecePosition());
+        }
+        return delta;
+    }
+
     /**
      * The main method for building and returning new board with all of the pieces & moved piece(updated position).
      * Only for making move without attack.
@@ -97,6 +113,7 @@ public abstract class Move {
         builder.setPiece(this.movedPiece.movePiece(this));
         // Get the other player to be active now (make a move).
         builder.setMoveMaker(this.board.getCurrentPlayer().getOppenent().getAlliance());
+        builder.setMoveTransition(this);
         // Return new board with all the changes.
         return builder.build();
     }
@@ -148,11 +165,6 @@ public abstract class Move {
             return super.equals(otherAttackMove) && getAttackedPiece().equals(otherAttackMove.getAttackedPiece());
         }
 
-        @Override
-        public Board execute() {
-            return null;
-        }
-
         @Override
         public boolean isAttack() {
             return true;
@@ -188,6 +200,103 @@ public abstract class Move {
                               final Piece attackedPiece) {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
+
+        /**
+         * Captured pawn is not on the destination tile, so it has to be left out explicitly.
+         * @return
+         */
+        @Override
+        public Board execute() {
+            final Board.Builder builder = new Board.Builder();
+            for(final Piece piece : this.board.getCurrentPlayer().getActivePieces()) {
+                if(!this.movedPiece.equals(piece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            for(final Piece piece : this.board.getCurrentPlayer().getOppenent().getActivePieces()) {
+                if(!piece.equals(this.getAttackedPiece())) {
+                    builder.setPiece(piece);
+                }
+            }
+            builder.setPiece(this.movedPiece.movePiece(this));
+            builder.setMoveMaker(this.board.getCurrentPlayer().getOppenent().getAlliance());
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
+    }
+
+    /**
+     * Pawn move (with or without attack) onto the last row - the pawn is replaced by the chosen piece.
+     */
+    public static final class PawnPromotion extends Move {
+
+        private final Move decoratedMove;
+        private final Piece.PieceType promotionType;
+
+        public PawnPromotion(final Move decoratedMove,
+                             final Piece.PieceType promotionType) {
+            super(decoratedMove.board, decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
+            this.decoratedMove = decoratedMove;
+            this.promotionType = promotionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotionType.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if(this == other) {
+                return true;
+            }
+            if(!(other instanceof PawnPromotion)) {
+                return false;
+            }
+            final PawnPromotion otherPromotion = (PawnPromotion) other;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) && this.promotionType == otherPromotion.promotionType;
+        }
+
+        public Piece.PieceType getPromotionType() {
+            return this.promotionType;
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        // Pawn leaves its tile, the promoted piece (not the pawn) lands on the destination.
+        @Override
+        long getZobristPieceDelta() {
+            final long pawnDelta = super.getZobristPieceDelta();
+            final int promotedPieceCode = this.movedPiece.getPieceAlliance().ordinal() * MutableBoard.NUM_PIECE_TYPES + this.promotionType.ordinal();
+            return pawnDelta ^ ZobristKeys.pieceKey(MutableBoard.pieceCode(this.movedPiece), this.destinationCoordinate) ^
+                   ZobristKeys.pieceKey(promotedPieceCode, this.destinationCoordinate);
+        }
+
+        @Override
+        public Board execute() {
+            final Board.Builder builder = new Board.Builder();
+            for(final Piece piece : this.board.getCurrentPlayer().getActivePieces()) {
+                if(!this.movedPiece.equals(piece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            // Attacked piece (if any) stands on the destination tile and gets replaced below.
+            for(final Piece piece : this.board.getCurrentPlayer().getOppenent().getActivePieces()) {
+                builder.setPiece(piece);
+            }
+            builder.setPiece(this.promotionType.createPiece(this.destinationCoordinate, this.movedPiece.getPieceAlliance(), false));
+            builder.setMoveMaker(this.board.getCurrentPlayer().getOppenent().getAlliance());
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
     }
 
     //TODO : REFACTOR
@@ -224,6 +333,7 @@ public abstract class Move {
             builder.setEnPassantPawn(movedPawn);
             // Execute en passant move - on opponent's turn.
             builder.setMoveMaker(this.board.getCurrentPlayer().getOppenent().getAlliance());
+            builder.setMoveTransition(this);
             // return new board (for render).
             return builder.build();
         }
@@ -254,6 +364,15 @@ public abstract class Move {
         public boolean isCastleMove() {
             return true;
         }
+
+        // King move plus the Rook jumping over it.
+        @Override
+        long getZobristPieceDelta() {
+            final int rookCode = MutableBoard.pieceCode(this.castleRook);
+            return super.getZobristPieceDelta() ^
+                   ZobristKeys.pieceKey(rookCode, this.castleRookStart) ^
+                   ZobristKeys.pieceKey(rookCode, this.castleRookDestination);
+        }
         @Override
         public Board execute() {
 
@@ -271,9 +390,10 @@ public abstract class Move {
             // Move King Piece.
             builder.setPiece((this.movedPiece.movePiece(this)));
             // Make new rook Piece
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance())); //  TODO SET NEW ROOK isFirstMove to false.
+            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance(), false));
             // As move has been made set the other player to active.
             builder.setMoveMaker(this.board.getCurrentPlayer().getOppenent().getAlliance());
+            builder.setMoveTransition(this);
             return builder.build();
         }
 
@@ -333,15 +453,62 @@ public abstract class Move {
             throw  new RuntimeException("Not instantiable");
         }
 
+        /**
+         * Legal move of the side to move - looked up in the board's move index, no list is scanned or allocated.
+         * A pawn reaching the last row promotes to a Queen.
+         * @param board
+         * @param currentCoordinate
+         * @param destinationCoordinate
+         * @return the move, NULL_MOVE when there is no such legal move
+         */
         public static Move createMove(final Board board,
                                       final int currentCoordinate,
                                       final int destinationCoordinate) {
-            for(final Move move : board.getAllLegalMoves()) {
-                if(move.getCurrentCoordinate() == destinationCoordinate) {
-                    return move;
-                }
+            return board.findMove(currentCoordinate, destinationCoordinate, null);
+        }
+
+        /**
+         * Same as createMove(), but for a pawn reaching the last row also picks the piece it promotes to.
+         * @param board
+         * @param currentCoordinate
+         * @param destinationCoordinate
+         * @param promotionType ignored for moves which are not promotions
+         * @return
+         */
+        public static Move createMove(final Board board,
+                                      final int currentCoordinate,
+                                      final int destinationCoordinate,
+                                      final Piece.PieceType promotionType) {
+            return board.findMove(currentCoordinate, destinationCoordinate, promotionType);
+        }
+
+        /**
+         * Move in long algebraic notation as UCI writes it - "e2e4", "e1g1" for castling, "e7e8q" for a promotion.
+         * @param board
+         * @param move
+         * @return the move, NULL_MOVE when the text is malformed or there is no such legal move
+         */
+        public static Move createMove(final Board board, final String move) {
+            if(move.length() < 4 || move.length() > 5) {
+                return NULL_MOVE;
+            }
+            final int currentCoordinate = BoardUtils.getCoordinateAtPosition(move.substring(0, 2));
+            final int destinationCoordinate = BoardUtils.getCoordinateAtPosition(move.substring(2, 4));
+            if(currentCoordinate < 0 || destinationCoordinate < 0) {
+                return NULL_MOVE;
+            }
+            if(move.length() == 4) {
+                return createMove(board, currentCoordinate, destinationCoordinate);
+            }
+            final Piece.PieceType promotionType;
+            switch(move.charAt(4)) {
+                case 'q': promotionType = Piece.PieceType.QUEEN; break;
+                case 'r': promotionType = Piece.PieceType.ROOK; break;
+                case 'b': promotionType = Piece.PieceType.BISHOP; break;
+                case 'n': promotionType = Piece.PieceType.KNIGHT; break;
+                default: return NULL_MOVE;
             }
-            return NULL_MOVE;
+            return createMove(board, currentCoordinate, destinationCoordinate, promotionType);
         }
     }
 }
@@ -0,0 +1,84 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+import java.util.Collection;
+
+/**
+ * Legal moves of one position keyed by (from, to, promotion piece) - open addressing hash table over two arrays,
+ * so a lookup is a few array reads and allocates nothing. Built once per Board, see Board.findMove().
+ */
+final class MoveIndex {
+
+    private static final int EMPTY = 0; // a8 -> a8 can never be a move, so key 0 is free.
+
+    private final int[] keys;
+    private final Move[] moves;
+    private final int mask;
+
+    MoveIndex(final Collection<Move> legalMoves) {
+        // At most half full - probe sequences stay short.
+        final int capacity = Integer.highestOneBit(Math.max(8, legalMoves.size() * 2)) * 2;
+        this.keys = new int[capacity];
+        this.moves = new Move[capacity];
+        this.mask = capacity - 1;
+        for(final Move move : legalMoves) {
+            final int key = key(move);
+            int slot = slot(key);
+            while(this.keys[slot] != EMPTY && this.keys[slot] != key) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[slot] = key;
+            this.moves[slot] = move;
+        }
+    }
+
+    private static int key(final int currentCoordinate, final int destinationCoordinate, final Piece.PieceType promotionType) {
+        return currentCoordinate | (destinationCoordinate << 6) | ((promotionType == null ? 0 : promotionType.ordinal() + 1) << 12);
+    }
+
+    private static int key(final Move move) {
+        final Piece.PieceType promotionType = move instanceof Move.PawnPromotion ? ((Move.PawnPromotion) move).getPromotionType() : null;
+        return key(move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionType);
+    }
+
+    private int slot(final int key) {
+        return (key * 0x9E3779B1 >>> 16) & this.mask;
+    }
+
+    private Move find(final int key) {
+        for(int slot = slot(key); this.keys[slot] != EMPTY; slot = (slot + 1) & this.mask) {
+            if(this.keys[slot] == key) {
+                return this.moves[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param currentCoordinate
+     * @param destinationCoordinate
+     * @param promotionType ignored for moves which are not promotions, null picks the Queen for promotions
+     * @return the move, Move.NULL_MOVE when there is no such legal move
+     */
+    Move get(final int currentCoordinate, final int destinationCoordinate, final Piece.PieceType promotionType) {
+        Move move = find(key(currentCoordinate, destinationCoordinate, promotionType));
+        if(move == null) {
+            move = find(key(currentCoordinate, destinationCoordinate, promotionType == null ? Piece.PieceType.QUEEN : null));
+        }
+        return move == null ? Move.NULL_MOVE : move;
+    }
+
+    /**
+     * @param move taken from this position's moves or built by hand (then compared with equals())
+     * @return whether the move is one of the indexed moves
+     */
+    boolean contains(final Move move) {
+        // NULL_MOVE has no piece, so no tiles - never a legal move.
+        if(move.getMovedPiece() == null) {
+            return false;
+        }
+        final Move indexed = find(key(move));
+        return indexed != null && (indexed == move || indexed.equals(move));
+    }
+}
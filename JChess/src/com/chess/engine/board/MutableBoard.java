@@ -0,0 +1,818 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Search side position. Unlike Board it is changed in place - makeMove() updates the tiles/bitboards and pushes
+ * everything needed to take the move back on an undo stack, unmakeMove() pops it again.
+ * No Board, Tile, Piece or Move objects are created while moves are made, moves are PackedMove ints.
+ *
+ * Board stays the immutable snapshot API, fromBoard()/toBoard() convert between the two.
+ * Not thread safe - every search thread needs its own instance.
+ */
+public final class MutableBoard {
+
+    // Piece types - same order as Piece.PieceType, so piece codes line up with BitBoard.
+    public static final int BISHOP = 0;
+    public static final int KING = 1;
+    public static final int KNIGHT = 2;
+    public static final int PAWN = 3;
+    public static final int QUEEN = 4;
+    public static final int ROOK = 5;
+    public static final int NUM_PIECE_TYPES = 6;
+
+    // Sides - same order as Alliance.
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    // Castling rights bits.
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    private static final int[] PROMOTION_FLAGS = {PackedMove.QUEEN_PROMOTION, PackedMove.ROOK_PROMOTION,
+                                                  PackedMove.BISHOP_PROMOTION, PackedMove.KNIGHT_PROMOTION};
+
+    // Castling rights which stay after a piece leaves or lands on the tile (King / Rook start tiles clear some).
+    private static final int[] CASTLING_MASK = initCastlingMask();
+
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+    private static final int MAX_PIECE_MOVES = 32; // Queen in the centre of an empty board has 27.
+    // Piece values by piece code, the King counts as nothing - material is what can be traded.
+    private static final int[] MATERIAL_VALUES = initMaterialValues();
+    // Static exchange evaluation - piece values by type (King included) and piece types from the cheapest up.
+    private static final int[] SEE_VALUES = initExchangeValues();
+    private static final int[] SEE_ORDER = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+    private static final int MAX_EXCHANGES = 32;
+
+    private final int[] squares = new int[BoardUtils.NUM_TILES]; // Piece code (side * 6 + type) or NO_PIECE.
+    private final long[] pieceBitBoards = new long[2 * NUM_PIECE_TYPES];
+    private final long[] occupancy = new long[2];
+    private final int[] pieceMoveBuffer = new int[MAX_PIECE_MOVES]; // For findPseudoLegalMove().
+    private final int[] exchangeGains = new int[MAX_EXCHANGES + 1]; // For staticExchangeEvaluation().
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    // Full move number before the first move made, the current one follows from the undo stack depth.
+    private int initialFullmoveNumber = 1;
+    private long zobristKey;
+    private long pawnKey; // Zobrist key of the pawns alone - see getPawnKey().
+    // Kept up to date by addPiece / removePiece / relocatePiece, so evaluation does not have to count pieces.
+    private final int[] material = new int[2];
+    private int middlegamePositionScore; // Sum of PieceSquareTables values, White minus Black.
+    private int endgamePositionScore;
+
+    // Undo stack - entry N holds what makeMove() overwrote when the N-th move was made.
+    private int ply;
+    private int[] undoMoves = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoCaptured = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoCastlingRights = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoEnPassant = new int[INITIAL_UNDO_CAPACITY];
+    private int[] undoHalfmoveClock = new int[INITIAL_UNDO_CAPACITY];
+    private long[] undoZobristKey = new long[INITIAL_UNDO_CAPACITY];
+
+    // Creates an empty board with white to move.
+    public MutableBoard() {
+        Arrays.fill(this.squares, NO_PIECE);
+        this.sideToMove = WHITE;
+        this.enPassantSquare = NO_SQUARE;
+    }
+
+    /**
+     * Copies pieces, side to move, castling rights (from King / Rook first move flags) and en passant pawn of the board.
+     * @param board
+     * @return
+     */
+    public static MutableBoard fromBoard(final Board board) {
+        final MutableBoard mutableBoard = new MutableBoard();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Tile tile = board.getTile(i);
+            if(tile.isTileOccupied()) {
+                mutableBoard.addPiece(i, pieceCode(tile.getPiece()));
+            }
+        }
+        mutableBoard.sideToMove = board.getCurrentPlayer().getAlliance().ordinal();
+        mutableBoard.castlingRights = board.getCastlingRights();
+        mutableBoard.halfmoveClock = board.getHalfmoveClock();
+        mutableBoard.initialFullmoveNumber = board.getFullmoveNumber();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if(enPassantPawn != null) {
+            // Tile the pawn jumped over.
+            mutableBoard.enPassantSquare = enPassantPawn.getPiecePosition() -
+                    enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        }
+        // Piece keys were XORed in by addPiece(), the rest of the state is added here.
+        mutableBoard.zobristKey ^= (mutableBoard.sideToMove == BLACK ? ZobristKeys.blackToMoveKey() : 0L) ^
+                                   ZobristKeys.castlingKey(mutableBoard.castlingRights) ^
+                                   ZobristKeys.enPassantKey(mutableBoard.getCapturableEnPassantSquare());
+        return mutableBoard;
+    }
+
+    /**
+     * Builds an immutable snapshot of the current position.
+     * @return
+     */
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int piece = this.squares[i];
+            if(piece != NO_PIECE) {
+                builder.setPiece(createPiece(i, piece));
+            }
+        }
+        builder.setMoveMaker(Alliance.values()[this.sideToMove]);
+        builder.setHalfmoveClock(this.halfmoveClock);
+        builder.setFullmoveNumber(getFullmoveNumber());
+        if(this.enPassantSquare != NO_SQUARE) {
+            // The pawn that jumped belongs to the side which is not on move.
+            final int pawnTile = this.sideToMove == WHITE ? this.enPassantSquare + 8 : this.enPassantSquare - 8;
+            builder.setEnPassantPawn((Pawn) createPiece(pawnTile, this.squares[pawnTile]));
+        }
+        return builder.build();
+    }
+
+    private Piece createPiece(final int tile, final int piece) {
+        final int side = piece / NUM_PIECE_TYPES;
+        final int type = piece % NUM_PIECE_TYPES;
+        final boolean isFirstMove;
+        if(type == PAWN) {
+            isFirstMove = side == WHITE ? BoardUtils.SEVENTH_ROW[tile] : BoardUtils.SECOND_ROW[tile];
+        } else if(type == KING) {
+            isFirstMove = (this.castlingRights & (side == WHITE ? WHITE_KING_SIDE | WHITE_QUEEN_SIDE : BLACK_KING_SIDE | BLACK_QUEEN_SIDE)) != 0;
+        } else if(type == ROOK) {
+            isFirstMove = (CASTLING_MASK[tile] & this.castlingRights) != this.castlingRights;
+        } else {
+            isFirstMove = false;
+        }
+        return Piece.PieceType.values()[type].createPiece(tile, Alliance.values()[side], isFirstMove);
+    }
+
+    static int pieceCode(final Piece piece) {
+        return piece.getPieceAlliance().ordinal() * NUM_PIECE_TYPES + piece.getPieceType().ordinal();
+    }
+
+    private static int[] initMaterialValues() {
+        final int[] values = new int[2 * NUM_PIECE_TYPES];
+        for(int piece = 0; piece < values.length; piece++) {
+            final Piece.PieceType type = Piece.PieceType.values()[piece % NUM_PIECE_TYPES];
+            values[piece] = type.isKing() ? 0 : type.getPieceValue();
+        }
+        return values;
+    }
+
+    private static int[] initExchangeValues() {
+        final int[] values = new int[NUM_PIECE_TYPES];
+        for(int type = 0; type < NUM_PIECE_TYPES; type++) {
+            values[type] = Piece.PieceType.values()[type].getPieceValue();
+        }
+        return values;
+    }
+
+    private static int[] initCastlingMask() {
+        final int[] mask = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(mask, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        mask[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        mask[63] &= ~WHITE_KING_SIDE;
+        mask[56] &= ~WHITE_QUEEN_SIDE;
+        mask[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        mask[7] &= ~BLACK_KING_SIDE;
+        mask[0] &= ~BLACK_QUEEN_SIDE;
+        return mask;
+    }
+
+    private void addPiece(final int tile, final int piece) {
+        this.zobristKey ^= ZobristKeys.pieceKey(piece, tile);
+        this.squares[tile] = piece;
+        this.pieceBitBoards[piece] |= 1L << tile;
+        this.occupancy[piece / NUM_PIECE_TYPES] |= 1L << tile;
+        this.material[piece / NUM_PIECE_TYPES] += MATERIAL_VALUES[piece];
+        if(piece % NUM_PIECE_TYPES == PAWN) {
+            this.pawnKey ^= ZobristKeys.pieceKey(piece, tile);
+        }
+        this.middlegamePositionScore += PieceSquareTables.middlegameValue(piece, tile);
+        this.endgamePositionScore += PieceSquareTables.endgameValue(piece, tile);
+    }
+
+    private void removePiece(final int tile) {
+        final int piece = this.squares[tile];
+        this.zobristKey ^= ZobristKeys.pieceKey(piece, tile);
+        this.squares[tile] = NO_PIECE;
+        this.pieceBitBoards[piece] &= ~(1L << tile);
+        this.occupancy[piece / NUM_PIECE_TYPES] &= ~(1L << tile);
+        this.material[piece / NUM_PIECE_TYPES] -= MATERIAL_VALUES[piece];
+        if(piece % NUM_PIECE_TYPES == PAWN) {
+            this.pawnKey ^= ZobristKeys.pieceKey(piece, tile);
+        }
+        this.middlegamePositionScore -= PieceSquareTables.middlegameValue(piece, tile);
+        this.endgamePositionScore -= PieceSquareTables.endgameValue(piece, tile);
+    }
+
+    private void relocatePiece(final int from, final int to) {
+        final int piece = this.squares[from];
+        final long fromTo = (1L << from) | (1L << to);
+        this.zobristKey ^= ZobristKeys.pieceKey(piece, from) ^ ZobristKeys.pieceKey(piece, to);
+        this.squares[from] = NO_PIECE;
+        this.squares[to] = piece;
+        this.pieceBitBoards[piece] ^= fromTo;
+        this.occupancy[piece / NUM_PIECE_TYPES] ^= fromTo;
+        this.middlegamePositionScore += PieceSquareTables.middlegameValue(piece, to) - PieceSquareTables.middlegameValue(piece, from);
+        this.endgamePositionScore += PieceSquareTables.endgameValue(piece, to) - PieceSquareTables.endgameValue(piece, from);
+        if(piece % NUM_PIECE_TYPES == PAWN) {
+            this.pawnKey ^= ZobristKeys.pieceKey(piece, from) ^ ZobristKeys.pieceKey(piece, to);
+        }
+    }
+
+    /**
+     * Makes the move in place. The move has to be (at least pseudo) legal for this position.
+     * @param move
+     */
+    public void makeMove(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flags = PackedMove.getFlags(move);
+        final int us = this.sideToMove;
+        final int movedType = this.squares[from] % NUM_PIECE_TYPES;
+
+        ensureUndoCapacity();
+        this.undoMoves[this.ply] = move;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassant[this.ply] = this.enPassantSquare;
+        this.undoHalfmoveClock[this.ply] = this.halfmoveClock;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+        final int previousKeyedEnPassantSquare = getCapturableEnPassantSquare();
+
+        int captured = NO_PIECE;
+        if(flags == PackedMove.EN_PASSANT) {
+            // Captured pawn stands behind the destination tile.
+            final int capturedTile = us == WHITE ? to + 8 : to - 8;
+            captured = this.squares[capturedTile];
+            removePiece(capturedTile);
+        } else if((flags & PackedMove.CAPTURE) != 0) {
+            captured = this.squares[to];
+            removePiece(to);
+        }
+        this.undoCaptured[this.ply] = captured;
+
+        relocatePiece(from, to);
+        if((flags & PackedMove.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, us * NUM_PIECE_TYPES + PackedMove.getPromotionType(move));
+        } else if(flags == PackedMove.KING_CASTLE) {
+            relocatePiece(to + 1, to - 1);
+        } else if(flags == PackedMove.QUEEN_CASTLE) {
+            relocatePiece(to - 2, to + 1);
+        }
+
+        final int previousCastlingRights = this.castlingRights;
+        this.enPassantSquare = flags == PackedMove.DOUBLE_PAWN_PUSH ? (from + to) / 2 : NO_SQUARE;
+        this.castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        this.halfmoveClock = (movedType == PAWN || captured != NO_PIECE) ? 0 : this.halfmoveClock + 1;
+        this.sideToMove = us ^ 1;
+        this.zobristKey ^= ZobristKeys.blackToMoveKey() ^
+                           ZobristKeys.castlingKey(previousCastlingRights) ^ ZobristKeys.castlingKey(this.castlingRights) ^
+                           ZobristKeys.enPassantKey(previousKeyedEnPassantSquare) ^
+                           ZobristKeys.enPassantKey(getCapturableEnPassantSquare());
+        this.ply++;
+    }
+
+    /**
+     * Takes back the last move made with makeMove().
+     */
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.undoMoves[this.ply];
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flags = PackedMove.getFlags(move);
+        final int us = this.sideToMove ^ 1;
+
+        if((flags & PackedMove.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, us * NUM_PIECE_TYPES + PAWN);
+        } else if(flags == PackedMove.KING_CASTLE) {
+            relocatePiece(to - 1, to + 1);
+        } else if(flags == PackedMove.QUEEN_CASTLE) {
+            relocatePiece(to + 1, to - 2);
+        }
+        relocatePiece(to, from);
+
+        final int captured = this.undoCaptured[this.ply];
+        if(captured != NO_PIECE) {
+            addPiece(flags == PackedMove.EN_PASSANT ? (us == WHITE ? to + 8 : to - 8) : to, captured);
+        }
+
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantSquare = this.undoEnPassant[this.ply];
+        this.halfmoveClock = this.undoHalfmoveClock[this.ply];
+        // Pieces put back above XORed the key already, restoring the saved one also covers castling / en passant / side.
+        this.zobristKey = this.undoZobristKey[this.ply];
+        this.sideToMove = us;
+    }
+
+    private void ensureUndoCapacity() {
+        if(this.ply == this.undoMoves.length) {
+            final int capacity = this.undoMoves.length * 2;
+            this.undoMoves = Arrays.copyOf(this.undoMoves, capacity);
+            this.undoCaptured = Arrays.copyOf(this.undoCaptured, capacity);
+            this.undoCastlingRights = Arrays.copyOf(this.undoCastlingRights, capacity);
+            this.undoEnPassant = Arrays.copyOf(this.undoEnPassant, capacity);
+            this.undoHalfmoveClock = Arrays.copyOf(this.undoHalfmoveClock, capacity);
+            this.undoZobristKey = Arrays.copyOf(this.undoZobristKey, capacity);
+        }
+    }
+
+    /**
+     * Checks whether any piece of the given side attacks the tile.
+     * @param tile
+     * @param bySide
+     * @return
+     */
+    public boolean isSquareAttacked(final int tile, final int bySide) {
+        final int pieces = bySide * NUM_PIECE_TYPES;
+        // Attacks are symmetric - a pawn of ours on the tile would attack exactly the tiles their attacking pawns stand on.
+        if((AttackTables.pawnAttacks(bySide ^ 1, tile) & this.pieceBitBoards[pieces + PAWN]) != 0 ||
+           (AttackTables.knightAttacks(tile) & this.pieceBitBoards[pieces + KNIGHT]) != 0 ||
+           (AttackTables.kingAttacks(tile) & this.pieceBitBoards[pieces + KING]) != 0) {
+            return true;
+        }
+        final long occupancy = getOccupancy();
+        final long queens = this.pieceBitBoards[pieces + QUEEN];
+        return (SlidingAttacks.rookAttacks(tile, occupancy) & (this.pieceBitBoards[pieces + ROOK] | queens)) != 0 ||
+               (SlidingAttacks.bishopAttacks(tile, occupancy) & (this.pieceBitBoards[pieces + BISHOP] | queens)) != 0;
+    }
+
+    /**
+     * Pieces of both sides attacking the tile, with the given occupancy deciding which sliders are blocked -
+     * static exchange evaluation removes the capturing pieces one by one to uncover the pieces behind them.
+     * @param tile
+     * @param occupancy
+     * @return
+     */
+    public long getAttackers(final int tile, final long occupancy) {
+        final long queens = this.pieceBitBoards[QUEEN] | this.pieceBitBoards[NUM_PIECE_TYPES + QUEEN];
+        return (AttackTables.pawnAttacks(BLACK, tile) & this.pieceBitBoards[PAWN]) |
+               (AttackTables.pawnAttacks(WHITE, tile) & this.pieceBitBoards[NUM_PIECE_TYPES + PAWN]) |
+               (AttackTables.knightAttacks(tile) & (this.pieceBitBoards[KNIGHT] | this.pieceBitBoards[NUM_PIECE_TYPES + KNIGHT])) |
+               (AttackTables.kingAttacks(tile) & (this.pieceBitBoards[KING] | this.pieceBitBoards[NUM_PIECE_TYPES + KING])) |
+               (SlidingAttacks.rookAttacks(tile, occupancy) & (this.pieceBitBoards[ROOK] | this.pieceBitBoards[NUM_PIECE_TYPES + ROOK] | queens)) |
+               (SlidingAttacks.bishopAttacks(tile, occupancy) & (this.pieceBitBoards[BISHOP] | this.pieceBitBoards[NUM_PIECE_TYPES + BISHOP] | queens));
+    }
+
+    /**
+     * Static exchange evaluation - material won or lost (centipawns, from the mover's side) when both sides keep
+     * capturing on the destination tile with their least valuable piece and either may stop when going on would
+     * lose more. Nothing is made on the board, attackers come from the attack tables and pieces behind a capturer
+     * (x-rays) show up as it is removed from the occupancy. Pins are not considered.
+     * @param move pseudo legal move, usually a capture
+     * @return
+     */
+    public int staticExchangeEvaluation(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flags = PackedMove.getFlags(move);
+        if(flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            return 0;
+        }
+        final int[] gain = this.exchangeGains;
+        long occupancy = getOccupancy() ^ (1L << from);
+        int pieceOnTile = SEE_VALUES[this.squares[from] % NUM_PIECE_TYPES];
+        if(flags == PackedMove.EN_PASSANT) {
+            occupancy ^= 1L << (this.sideToMove == WHITE ? to + 8 : to - 8);
+            gain[0] = SEE_VALUES[PAWN];
+        } else {
+            gain[0] = this.squares[to] == NO_PIECE ? 0 : SEE_VALUES[this.squares[to] % NUM_PIECE_TYPES];
+        }
+        if((flags & PackedMove.PROMOTION) != 0) {
+            pieceOnTile = SEE_VALUES[PackedMove.getPromotionType(move)];
+            gain[0] += pieceOnTile - SEE_VALUES[PAWN];
+        }
+        int side = this.sideToMove ^ 1;
+        int depth = 0;
+        while(true) {
+            final long attackers = getAttackers(to, occupancy) & occupancy;
+            final long sideAttackers = attackers & this.occupancy[side];
+            if(sideAttackers == 0) {
+                break;
+            }
+            // Least valuable attacker captures next.
+            int attackerType = PAWN;
+            long attacker = sideAttackers & this.pieceBitBoards[side * NUM_PIECE_TYPES + PAWN];
+            for(int i = 1; attacker == 0; i++) {
+                attackerType = SEE_ORDER[i];
+                attacker = sideAttackers & this.pieceBitBoards[side * NUM_PIECE_TYPES + attackerType];
+            }
+            // The King may only take when nothing can take it back.
+            if(attackerType == KING && (attackers & this.occupancy[side ^ 1]) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = pieceOnTile - gain[depth - 1];
+            // The side which made the previous capture is worse off whether this capture is made or not - it would
+            // not have made that capture, the rest of the exchange cannot change that.
+            if(Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;
+                break;
+            }
+            occupancy ^= Long.lowestOneBit(attacker);
+            pieceOnTile = SEE_VALUES[attackerType];
+            side ^= 1;
+        }
+        // Back to the first capture - every side only continues the exchange when that is better than stopping.
+        while(depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    // Is the side to move in check.
+    public boolean isInCheck() {
+        return isSquareAttacked(getKingSquare(this.sideToMove), this.sideToMove ^ 1);
+    }
+
+    public int getKingSquare(final int side) {
+        return Long.numberOfTrailingZeros(this.pieceBitBoards[side * NUM_PIECE_TYPES + KING]);
+    }
+
+    /**
+     * Writes all pseudo legal moves (may leave own King in check) of the side to move into the buffer,
+     * captures and promotions first.
+     * @param moves buffer, 256 entries is enough for any position
+     * @return number of moves written
+     */
+    public int generatePseudoLegalMoves(final int[] moves) {
+        return generateQuietMoves(moves, generateCaptures(moves, 0));
+    }
+
+    /**
+     * First stage of a staged generation - captures (en passant included) and promotions, the moves which
+     * change the material. A search tries them first and often never needs the quiet moves.
+     * @param moves buffer
+     * @param count moves already in the buffer, new ones are written after them
+     * @return number of moves in the buffer
+     */
+    public int generateCaptures(final int[] moves, final int count) {
+        return generateMoves(this.occupancy[this.sideToMove ^ 1], true, moves, count);
+    }
+
+    /**
+     * Second stage - the moves generateCaptures() leaves out, castling included.
+     * @param moves buffer
+     * @param count moves already in the buffer, new ones are written after them
+     * @return number of moves in the buffer
+     */
+    public int generateQuietMoves(final int[] moves, final int count) {
+        return generateCastleMoves(moves, generateMoves(~getOccupancy(), false, moves, count));
+    }
+
+    // Moves of all pieces of the side to move to the target tiles - pawns decide by captures instead.
+    private int generateMoves(final long targets, final boolean captures, final int[] moves, int count) {
+        long pieces = this.occupancy[this.sideToMove];
+        while(pieces != 0) {
+            final int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            count = generatePieceMoves(from, targets, captures, moves, count);
+        }
+        return count;
+    }
+
+    private int generatePieceMoves(final int from, final long targets, final boolean captures, final int[] moves, final int count) {
+        switch(this.squares[from] % NUM_PIECE_TYPES) {
+            case PAWN:
+                return generatePawnMoves(from, captures, moves, count);
+            case KNIGHT:
+                return addMoves(from, AttackTables.knightAttacks(from) & targets, moves, count);
+            case KING:
+                return addMoves(from, AttackTables.kingAttacks(from) & targets, moves, count);
+            case BISHOP:
+                return addMoves(from, SlidingAttacks.bishopAttacks(from, getOccupancy()) & targets, moves, count);
+            case ROOK:
+                return addMoves(from, SlidingAttacks.rookAttacks(from, getOccupancy()) & targets, moves, count);
+            case QUEEN:
+                return addMoves(from, SlidingAttacks.queenAttacks(from, getOccupancy()) & targets, moves, count);
+            default:
+                throw new RuntimeException("Unknown piece on tile " + from);
+        }
+    }
+
+    /**
+     * Checks a move from elsewhere (transposition table, killer move of a sibling) against this position.
+     * @param move may lack the piece type bits
+     * @return the pseudo legal move of this position with the same from / to / flags (piece types filled in),
+     *         PackedMove.NONE if there is none
+     */
+    public int findPseudoLegalMove(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int piece = this.squares[from];
+        if(move == PackedMove.NONE || piece == NO_PIECE || piece / NUM_PIECE_TYPES != this.sideToMove) {
+            return PackedMove.NONE;
+        }
+        final int[] pieceMoves = this.pieceMoveBuffer;
+        int count = generatePieceMoves(from, this.occupancy[this.sideToMove ^ 1], true, pieceMoves, 0);
+        count = generatePieceMoves(from, ~getOccupancy(), false, pieceMoves, count);
+        if(piece % NUM_PIECE_TYPES == KING) {
+            count = generateCastleMoves(pieceMoves, count);
+        }
+        for(int i = 0; i < count; i++) {
+            if(PackedMove.isSameMove(pieceMoves[i], move)) {
+                return pieceMoves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Writes only the legal moves of the side to move into the buffer. Checkers and pinned pieces are found once,
+     * then every pseudo legal move is checked against them - no move is made.
+     * @param moves buffer, 256 entries is enough for any position
+     * @return number of moves written
+     */
+    public int generateLegalMoves(final int[] moves) {
+        final int pseudoLegalCount = generatePseudoLegalMoves(moves);
+        final long checkers = getCheckers();
+        final long pinned = getPinnedPieces(this.sideToMove);
+        int count = 0;
+        for(int i = 0; i < pseudoLegalCount; i++) {
+            if(isLegal(moves[i], checkers, pinned)) {
+                moves[count++] = moves[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the pseudo legal move leaves own King safe.
+     * @param move
+     * @return
+     */
+    public boolean isLegal(final int move) {
+        return isLegal(move, getCheckers(), getPinnedPieces(this.sideToMove));
+    }
+
+    /**
+     * Checks whether the pseudo legal move leaves own King safe, without making it:
+     *  - the King may not step onto an attacked tile (sliders see through the tile it leaves),
+     *  - in check any other piece has to capture the checker or block the line to it, in double check it can not,
+     *  - a pinned piece moves along the line between its King and the pinning piece only,
+     *  - en passant removes two pieces from one row, so it checks the King directly.
+     * Castling moves are only generated when legal.
+     * @param move
+     * @param checkers getCheckers() of this position
+     * @param pinned getPinnedPieces() of the side to move
+     * @return
+     */
+    public boolean isLegal(final int move, final long checkers, final long pinned) {
+        final int us = this.sideToMove;
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flags = PackedMove.getFlags(move);
+        final int kingTile = getKingSquare(us);
+        if(from == kingTile) {
+            if(flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+                return true;
+            }
+            return (getAttackers(to, getOccupancy() ^ (1L << from)) & this.occupancy[us ^ 1] & ~(1L << to)) == 0;
+        }
+        if(flags == PackedMove.EN_PASSANT) {
+            final long captured = 1L << (us == WHITE ? to + 8 : to - 8);
+            final long occupancy = (getOccupancy() ^ (1L << from) ^ captured) | (1L << to);
+            return (getAttackers(kingTile, occupancy) & this.occupancy[us ^ 1] & ~captured) == 0;
+        }
+        if(checkers != 0) {
+            if((checkers & (checkers - 1)) != 0) {
+                return false;
+            }
+            if(((AttackTables.between(kingTile, Long.numberOfTrailingZeros(checkers)) | checkers) & (1L << to)) == 0) {
+                return false;
+            }
+        }
+        return (pinned & (1L << from)) == 0 || (AttackTables.line(kingTile, from) & (1L << to)) != 0;
+    }
+
+    /**
+     * Opponent pieces giving check to the side to move, 0 when not in check.
+     * @return
+     */
+    public long getCheckers() {
+        final int us = this.sideToMove;
+        return getAttackers(getKingSquare(us), getOccupancy()) & this.occupancy[us ^ 1];
+    }
+
+    /**
+     * Pieces of the side which are the only piece between their King and an opponent slider - moving one off
+     * that line would expose the King.
+     * @param side
+     * @return
+     */
+    public long getPinnedPieces(final int side) {
+        final int them = side ^ 1;
+        final int kingTile = getKingSquare(side);
+        final long queens = this.pieceBitBoards[them * NUM_PIECE_TYPES + QUEEN];
+        // Opponent sliders which would attack the King if the own pieces were not in the way.
+        long snipers = (SlidingAttacks.rookAttacks(kingTile, this.occupancy[them]) & (this.pieceBitBoards[them * NUM_PIECE_TYPES + ROOK] | queens)) |
+                       (SlidingAttacks.bishopAttacks(kingTile, this.occupancy[them]) & (this.pieceBitBoards[them * NUM_PIECE_TYPES + BISHOP] | queens));
+        final long occupancy = getOccupancy();
+        long pinned = 0L;
+        while(snipers != 0) {
+            final long blockers = AttackTables.between(kingTile, Long.numberOfTrailingZeros(snipers)) & occupancy;
+            if((blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & this.occupancy[side];
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    // Captures and promotions (captures == true) or the other pushes.
+    private int generatePawnMoves(final int from, final boolean captures, final int[] moves, int count) {
+        final int us = this.sideToMove;
+        final int forward = us == WHITE ? -BoardUtils.NUM_TILES_PER_ROW : BoardUtils.NUM_TILES_PER_ROW;
+        final int oneStep = from + forward;
+        final boolean promotes = us == WHITE ? oneStep < BoardUtils.NUM_TILES_PER_ROW : oneStep >= BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW;
+        // Pushes to the last row are promotions and belong to the captures stage, the other pushes are quiet.
+        if(promotes == captures && this.squares[oneStep] == NO_PIECE) {
+            if(promotes) {
+                count = addPromotions(from, oneStep, PackedMove.QUIET, NO_PIECE, moves, count);
+            } else {
+                moves[count++] = PackedMove.encode(from, oneStep, PackedMove.QUIET, PAWN, NO_PIECE);
+                final boolean onStartRow = us == WHITE ? BoardUtils.SEVENTH_ROW[from] : BoardUtils.SECOND_ROW[from];
+                if(onStartRow && this.squares[oneStep + forward] == NO_PIECE) {
+                    moves[count++] = PackedMove.encode(from, oneStep + forward, PackedMove.DOUBLE_PAWN_PUSH, PAWN, NO_PIECE);
+                }
+            }
+        }
+        if(!captures) {
+            return count;
+        }
+        final long attacks = AttackTables.pawnAttacks(us, from);
+        long targets = attacks & this.occupancy[us ^ 1];
+        while(targets != 0) {
+            final int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            final int capturedType = this.squares[to] % NUM_PIECE_TYPES;
+            if(promotes) {
+                count = addPromotions(from, to, PackedMove.CAPTURE, capturedType, moves, count);
+            } else {
+                moves[count++] = PackedMove.encode(from, to, PackedMove.CAPTURE, PAWN, capturedType);
+            }
+        }
+        if(this.enPassantSquare != NO_SQUARE && (attacks & (1L << this.enPassantSquare)) != 0) {
+            moves[count++] = PackedMove.encode(from, this.enPassantSquare, PackedMove.EN_PASSANT, PAWN, PAWN);
+        }
+        return count;
+    }
+
+    private static int addPromotions(final int from, final int to, final int captureFlag, final int capturedType,
+                                     final int[] moves, int count) {
+        for(final int promotionFlag : PROMOTION_FLAGS) {
+            moves[count++] = PackedMove.encode(from, to, promotionFlag | captureFlag, PAWN, capturedType);
+        }
+        return count;
+    }
+
+    // Quiet moves and captures to the attacked tiles, which must not hold own pieces.
+    private int addMoves(final int from, final long attacks, final int[] moves, int count) {
+        final int movedType = this.squares[from] % NUM_PIECE_TYPES;
+        long targets = attacks;
+        while(targets != 0) {
+            final int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            final int target = this.squares[to];
+            moves[count++] = target == NO_PIECE ? PackedMove.encode(from, to, PackedMove.QUIET, movedType, NO_PIECE) :
+                                                  PackedMove.encode(from, to, PackedMove.CAPTURE, movedType, target % NUM_PIECE_TYPES);
+        }
+        return count;
+    }
+
+    private int generateCastleMoves(final int[] moves, int count) {
+        final int them = this.sideToMove ^ 1;
+        // King tile and the tile next to it, for King side and for Queen side.
+        final int kingTile = this.sideToMove == WHITE ? 60 : 4;
+        final int kingSide = this.sideToMove == WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        final int queenSide = this.sideToMove == WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        if((this.castlingRights & (kingSide | queenSide)) == 0 || isSquareAttacked(kingTile, them)) {
+            return count;
+        }
+        // King side - tiles between King and Rook empty, King does not cross an attacked tile.
+        if((this.castlingRights & kingSide) != 0 &&
+                this.squares[kingTile + 1] == NO_PIECE && this.squares[kingTile + 2] == NO_PIECE &&
+                !isSquareAttacked(kingTile + 1, them) && !isSquareAttacked(kingTile + 2, them)) {
+            moves[count++] = PackedMove.encode(kingTile, kingTile + 2, PackedMove.KING_CASTLE, KING, NO_PIECE);
+        }
+        // Queen side - three empty tiles, but Rook passes the third one only, so it may be attacked.
+        if((this.castlingRights & queenSide) != 0 &&
+                this.squares[kingTile - 1] == NO_PIECE && this.squares[kingTile - 2] == NO_PIECE &&
+                this.squares[kingTile - 3] == NO_PIECE &&
+                !isSquareAttacked(kingTile - 1, them) && !isSquareAttacked(kingTile - 2, them)) {
+            moves[count++] = PackedMove.encode(kingTile, kingTile - 2, PackedMove.QUEEN_CASTLE, KING, NO_PIECE);
+        }
+        return count;
+    }
+
+    // Piece code on the tile (side * 6 + type) or NO_PIECE.
+    public int getPiece(final int tile) {
+        return this.squares[tile];
+    }
+
+    public long getPieces(final int side, final int type) {
+        return this.pieceBitBoards[side * NUM_PIECE_TYPES + type];
+    }
+
+    public long getOccupancy(final int side) {
+        return this.occupancy[side];
+    }
+
+    public long getOccupancy() {
+        return this.occupancy[WHITE] | this.occupancy[BLACK];
+    }
+
+    public int getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    // En passant square when a pawn of the side to move can capture there, NO_SQUARE otherwise - only then is it
+    // part of the position (Zobrist key, repetitions).
+    private int getCapturableEnPassantSquare() {
+        if(this.enPassantSquare == NO_SQUARE) {
+            return NO_SQUARE;
+        }
+        final long capturers = AttackTables.pawnAttacks(this.sideToMove ^ 1, this.enPassantSquare) &
+                               this.pieceBitBoards[this.sideToMove * NUM_PIECE_TYPES + PAWN];
+        return capturers != 0 ? this.enPassantSquare : NO_SQUARE;
+    }
+
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        // Side to move before the first move made - when Black began, the number grows one move earlier.
+        final int initialSideToMove = this.sideToMove ^ (this.ply & 1);
+        return this.initialFullmoveNumber + (this.ply + initialSideToMove) / 2;
+    }
+
+    // Value of the side's pieces without the King, in centipawns (Piece.PieceType.getPieceValue()).
+    public int getMaterial(final int side) {
+        return this.material[side];
+    }
+
+    // Piece-square table sums, White minus Black - see PieceSquareTables.
+    public int getMiddlegamePositionScore() {
+        return this.middlegamePositionScore;
+    }
+
+    public int getEndgamePositionScore() {
+        return this.endgamePositionScore;
+    }
+
+    // Zobrist key - same value as Board.getZobristKey() for the same position.
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    // Key of the pawn placement only (XOR of the pawns' piece keys) - changes with pawn moves, captures of pawns
+    // and promotions, so pawn structure results can be cached by it, see PawnHashTable.
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    // Number of moves made and not yet taken back.
+    public int getPly() {
+        return this.ply;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final int piece = this.squares[i];
+            String tileText = "-";
+            if(piece != NO_PIECE) {
+                tileText = Piece.PieceType.values()[piece % NUM_PIECE_TYPES].toString();
+                tileText = piece / NUM_PIECE_TYPES == BLACK ? tileText.toLowerCase() : tileText;
+            }
+            builder.append(String.format("%3s", tileText));
+            if((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
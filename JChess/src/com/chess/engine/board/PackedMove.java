@@ -0,0 +1,201 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Rook;
+
+/**
+ * Moves of the MutableBoard are plain ints instead of Move objects - no Board or Piece references, nothing to allocate.
+ * Generators fill caller supplied int[] buffers (see MutableBoard.generateLegalMoves), fromMove() / toMove()
+ * convert from and to Move objects of a Board.
+ *
+ * Bit layout:
+ *  0 - 5   from tile
+ *  6 - 11  destination tile
+ *  12 - 15 flags (see constants below)
+ *  16 - 18 moved piece type (MutableBoard type constant)
+ *  19 - 21 captured piece type + 1, 0 when nothing is captured
+ * The low 16 bits alone identify the move within a position (MOVE_MASK) - the piece bits are there so move ordering
+ * and history do not need to look at the board. Moves made of the low 16 bits only (e.g. from the transposition
+ * table or typed in by a user) are still fine for MutableBoard.makeMove().
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0; // a8 -> a8 can never be a real move.
+    public static final int MOVE_MASK = 0xFFFF;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    // Promotion flag - lowest two bits choose the piece (knight, bishop, rook, queen), capture bit may be set too.
+    public static final int PROMOTION = 8;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+
+    private static final int[] PROMOTION_TYPES = { MutableBoard.KNIGHT, MutableBoard.BISHOP, MutableBoard.ROOK, MutableBoard.QUEEN };
+
+    private PackedMove() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static int encode(final int from, final int to, final int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @param flags
+     * @param movedType MutableBoard type constant
+     * @param capturedType MutableBoard type constant, MutableBoard.NO_PIECE for none
+     * @return
+     */
+    public static int encode(final int from, final int to, final int flags, final int movedType, final int capturedType) {
+        return from | (to << 6) | (flags << 12) | (movedType << 16) | ((capturedType + 1) << 19);
+    }
+
+    // Same move, ignoring the piece bits - one of the moves may have come without them.
+    public static boolean isSameMove(final int move, final int otherMove) {
+        return (move & MOVE_MASK) == (otherMove & MOVE_MASK);
+    }
+
+    public static int getFrom(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getTo(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getFlags(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static int getMovedPieceType(final int move) {
+        return (move >>> 16) & 0x7;
+    }
+
+    // MutableBoard type constant, MutableBoard.NO_PIECE when nothing is captured.
+    public static int getCapturedPieceType(final int move) {
+        return ((move >>> 19) & 0x7) - 1;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(final int move) {
+        final int flags = getFlags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    /**
+     * Piece type (MutableBoard type constant) the pawn turns into.
+     * @param move
+     * @return
+     */
+    public static int getPromotionType(final int move) {
+        return PROMOTION_TYPES[getFlags(move) & 3];
+    }
+
+    /**
+     * Packs a Move of a Board.
+     * @param move
+     * @return
+     */
+    public static int fromMove(final Move move) {
+        if(move == Move.NULL_MOVE) {
+            return NONE;
+        }
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        final Piece attackedPiece = move.getAttackedPiece();
+        final int capturedType = attackedPiece == null ? MutableBoard.NO_PIECE : attackedPiece.getPieceType().ordinal();
+        final int flags;
+        if(move instanceof Move.PawnPromotion) {
+            flags = promotionFlag(((Move.PawnPromotion) move).getPromotionType()) | (move.isAttack() ? CAPTURE : QUIET);
+        } else if(move instanceof Move.KingSideCastleMove) {
+            flags = KING_CASTLE;
+        } else if(move instanceof Move.QueenSideCastleMove) {
+            flags = QUEEN_CASTLE;
+        } else if(move instanceof Move.PawnEnPassantAttMove) {
+            flags = EN_PASSANT;
+        } else if(move instanceof Move.PawnJump) {
+            flags = DOUBLE_PAWN_PUSH;
+        } else {
+            flags = move.isAttack() ? CAPTURE : QUIET;
+        }
+        return encode(from, to, flags, move.getMovedPiece().getPieceType().ordinal(), capturedType);
+    }
+
+    private static int promotionFlag(final Piece.PieceType promotionType) {
+        for(int i = 0; i < PROMOTION_TYPES.length; i++) {
+            if(PROMOTION_TYPES[i] == promotionType.ordinal()) {
+                return PROMOTION | i;
+            }
+        }
+        throw new RuntimeException("Cannot promote to " + promotionType);
+    }
+
+    /**
+     * Creates the Move object for the packed move on the board, straight from its flags - no move list is generated.
+     * Legality is not checked here, Player.makeMove() does that.
+     * @param board
+     * @param move
+     * @return the Move, Move.NULL_MOVE when there is no piece on the from tile
+     */
+    public static Move toMove(final Board board, final int move) {
+        final Piece movedPiece = board.getTile(getFrom(move)).getPiece();
+        if(move == NONE || movedPiece == null) {
+            return Move.NULL_MOVE;
+        }
+        final int to = getTo(move);
+        final int flags = getFlags(move);
+        final Piece attackedPiece = board.getTile(to).getPiece();
+        switch(flags) {
+            case DOUBLE_PAWN_PUSH:
+                return new Move.PawnJump(board, movedPiece, to);
+            case KING_CASTLE:
+            case QUEEN_CASTLE:
+                // King side Rook stands right of the King destination, Queen side Rook two tiles left of it.
+                final int rookStart = flags == KING_CASTLE ? to + 1 : to - 2;
+                final Piece rook = board.getTile(rookStart).getPiece();
+                if(!(rook instanceof Rook)) {
+                    return Move.NULL_MOVE;
+                }
+                return flags == KING_CASTLE ?
+                        new Move.KingSideCastleMove(board, movedPiece, to, (Rook) rook, rookStart, to - 1) :
+                        new Move.QueenSideCastleMove(board, movedPiece, to, (Rook) rook, rookStart, to + 1);
+            case EN_PASSANT:
+                return new Move.PawnEnPassantAttMove(board, movedPiece, to, board.getEnPassantPawn());
+            default:
+                final Move baseMove;
+                if(movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+                    baseMove = attackedPiece != null ? new Move.PawnAttackMove(board, movedPiece, to, attackedPiece) :
+                                                       new Move.PawnMove(board, movedPiece, to);
+                } else {
+                    baseMove = attackedPiece != null ? new Move.AttackMove(board, movedPiece, to, attackedPiece) :
+                                                       new Move.MajorMove(board, movedPiece, to);
+                }
+                return isPromotion(move) ? new Move.PawnPromotion(baseMove, Piece.PieceType.values()[getPromotionType(move)]) : baseMove;
+        }
+    }
+
+    /**
+     * Coordinate notation used by UCI, e.g. "e2e4" or "e7e8q".
+     * @param move
+     * @return
+     */
+    public static String toString(final int move) {
+        final String text = BoardUtils.getPositionAtCoordinate(getFrom(move)) + BoardUtils.getPositionAtCoordinate(getTo(move));
+        return isPromotion(move) ? text + "nbrq".charAt(getFlags(move) & 3) : text;
+    }
+}
@@ -0,0 +1,135 @@
+package com.chess.engine.board;
+
+/**
+ * Bonus / penalty in centipawns for a piece standing on a tile - pieces in the centre, pawns advanced and the King
+ * tucked away in the middlegame (but central in the endgame). One table for the middlegame and one for the
+ * endgame, an evaluation blends them by the material left.
+ *
+ * Tables are written from White's side with a8 first, the same order as Board tiles, and mirrored for Black.
+ * Values are signed - positive for White pieces, negative for Black ones - so MutableBoard can keep one running
+ * sum per game phase.
+ */
+public final class PieceSquareTables {
+
+    // Indexed by MutableBoard piece type (BISHOP, KING, KNIGHT, PAWN, QUEEN, ROOK).
+    private static final int[][] MIDDLEGAME_TABLES = {
+            {
+                    -20,-10,-10,-10,-10,-10,-10,-20,
+                    -10,  0,  0,  0,  0,  0,  0,-10,
+                    -10,  0,  5, 10, 10,  5,  0,-10,
+                    -10,  5,  5, 10, 10,  5,  5,-10,
+                    -10,  0, 10, 10, 10, 10,  0,-10,
+                    -10, 10, 10, 10, 10, 10, 10,-10,
+                    -10,  5,  0,  0,  0,  0,  5,-10,
+                    -20,-10,-10,-10,-10,-10,-10,-20
+            },
+            {
+                    -30,-40,-40,-50,-50,-40,-40,-30,
+                    -30,-40,-40,-50,-50,-40,-40,-30,
+                    -30,-40,-40,-50,-50,-40,-40,-30,
+                    -30,-40,-40,-50,-50,-40,-40,-30,
+                    -20,-30,-30,-40,-40,-30,-30,-20,
+                    -10,-20,-20,-20,-20,-20,-20,-10,
+                     20, 20,  0,  0,  0,  0, 20, 20,
+                     20, 30, 10,  0,  0, 10, 30, 20
+            },
+            {
+                    -50,-40,-30,-30,-30,-30,-40,-50,
+                    -40,-20,  0,  0,  0,  0,-20,-40,
+                    -30,  0, 10, 15, 15, 10,  0,-30,
+                    -30,  5, 15, 20, 20, 15,  5,-30,
+                    -30,  0, 15, 20, 20, 15,  0,-30,
+                    -30,  5, 10, 15, 15, 10,  5,-30,
+                    -40,-20,  0,  5,  5,  0,-20,-40,
+                    -50,-40,-30,-30,-30,-30,-40,-50
+            },
+            {
+                      0,  0,  0,  0,  0,  0,  0,  0,
+                     50, 50, 50, 50, 50, 50, 50, 50,
+                     10, 10, 20, 30, 30, 20, 10, 10,
+                      5,  5, 10, 25, 25, 10,  5,  5,
+                      0,  0,  0, 20, 20,  0,  0,  0,
+                      5, -5,-10,  0,  0,-10, -5,  5,
+                      5, 10, 10,-20,-20, 10, 10,  5,
+                      0,  0,  0,  0,  0,  0,  0,  0
+            },
+            {
+                    -20,-10,-10, -5, -5,-10,-10,-20,
+                    -10,  0,  0,  0,  0,  0,  0,-10,
+                    -10,  0,  5,  5,  5,  5,  0,-10,
+                     -5,  0,  5,  5,  5,  5,  0, -5,
+                      0,  0,  5,  5,  5,  5,  0, -5,
+                    -10,  5,  5,  5,  5,  5,  0,-10,
+                    -10,  0,  5,  0,  0,  0,  0,-10,
+                    -20,-10,-10, -5, -5,-10,-10,-20
+            },
+            {
+                      0,  0,  0,  0,  0,  0,  0,  0,
+                      5, 10, 10, 10, 10, 10, 10,  5,
+                     -5,  0,  0,  0,  0,  0,  0, -5,
+                     -5,  0,  0,  0,  0,  0,  0, -5,
+                     -5,  0,  0,  0,  0,  0,  0, -5,
+                     -5,  0,  0,  0,  0,  0,  0, -5,
+                     -5,  0,  0,  0,  0,  0,  0, -5,
+                      0,  0,  0,  5,  5,  0,  0,  0
+            }
+    };
+
+    // Endgame - the King heads for the centre and pawns are worth more the closer they are to promotion.
+    private static final int[] ENDGAME_KING_TABLE = {
+            -50,-40,-30,-20,-20,-30,-40,-50,
+            -30,-20,-10,  0,  0,-10,-20,-30,
+            -30,-10, 20, 30, 30, 20,-10,-30,
+            -30,-10, 30, 40, 40, 30,-10,-30,
+            -30,-10, 30, 40, 40, 30,-10,-30,
+            -30,-10, 20, 30, 30, 20,-10,-30,
+            -30,-30,  0,  0,  0,  0,-30,-30,
+            -50,-30,-30,-30,-30,-30,-30,-50
+    };
+    private static final int[] ENDGAME_PAWN_TABLE = {
+              0,  0,  0,  0,  0,  0,  0,  0,
+             80, 80, 80, 80, 80, 80, 80, 80,
+             50, 50, 50, 50, 50, 50, 50, 50,
+             30, 30, 30, 30, 30, 30, 30, 30,
+             15, 15, 15, 15, 15, 15, 15, 15,
+              5,  5,  5,  5,  5,  5,  5,  5,
+              0,  0,  0,  0,  0,  0,  0,  0,
+              0,  0,  0,  0,  0,  0,  0,  0
+    };
+
+    // Indexed by piece code (side * 6 + type) and tile.
+    private static final int[][] MIDDLEGAME_VALUES = new int[2 * MutableBoard.NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+    private static final int[][] ENDGAME_VALUES = new int[2 * MutableBoard.NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+
+    static {
+        for(int type = 0; type < MutableBoard.NUM_PIECE_TYPES; type++) {
+            final int[] endgameTable = type == MutableBoard.KING ? ENDGAME_KING_TABLE :
+                                       type == MutableBoard.PAWN ? ENDGAME_PAWN_TABLE : MIDDLEGAME_TABLES[type];
+            for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                // Black's tile seen from White's side - same file, mirrored row.
+                final int mirroredTile = tile ^ 56;
+                MIDDLEGAME_VALUES[type][tile] = MIDDLEGAME_TABLES[type][tile];
+                ENDGAME_VALUES[type][tile] = endgameTable[tile];
+                MIDDLEGAME_VALUES[MutableBoard.NUM_PIECE_TYPES + type][tile] = -MIDDLEGAME_TABLES[type][mirroredTile];
+                ENDGAME_VALUES[MutableBoard.NUM_PIECE_TYPES + type][tile] = -endgameTable[mirroredTile];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    /**
+     * @param piece piece code (side * 6 + type)
+     * @param tile
+     * @return middlegame bonus, negative for Black pieces
+     */
+    public static int middlegameValue(final int piece, final int tile) {
+        return MIDDLEGAME_VALUES[piece][tile];
+    }
+
+    public static int endgameValue(final int piece, final int tile) {
+        return ENDGAME_VALUES[piece][tile];
+    }
+}
@@ -0,0 +1,136 @@
+package com.chess.engine.board;
+
+import java.util.SplittableRandom;
+
+/**
+ * Rook / Bishop / Queen attacks for a tile and board occupancy in O(1) - "fancy" magic bitboards.
+ *
+ * Only the pieces on the tiles a slider could be blocked by matter (the mask - its rays without the board edge).
+ * Multiplying those masked occupancy bits by the tile's magic number packs them into the top bits of the product,
+ * which index the precomputed attack sets of the tile. Magic numbers are searched once at class load with a fixed
+ * seed, so the tables are the same on every run and the board needs no particular tile numbering (here a8 = 0).
+ */
+public final class SlidingAttacks {
+
+    private static final long MAGIC_SEED = 0x4D61676963L;
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[BoardUtils.NUM_TILES][];
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    static {
+        final SplittableRandom random = new SplittableRandom(MAGIC_SEED);
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            initTile(tile, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, random);
+            initTile(tile, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, random);
+        }
+    }
+
+    private SlidingAttacks() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static long rookAttacks(final int tile, final long occupancy) {
+        return ROOK_ATTACKS[tile][(int) (((occupancy & ROOK_MASKS[tile]) * ROOK_MAGICS[tile]) >>> ROOK_SHIFTS[tile])];
+    }
+
+    public static long bishopAttacks(final int tile, final long occupancy) {
+        return BISHOP_ATTACKS[tile][(int) (((occupancy & BISHOP_MASKS[tile]) * BISHOP_MAGICS[tile]) >>> BISHOP_SHIFTS[tile])];
+    }
+
+    public static long queenAttacks(final int tile, final long occupancy) {
+        return rookAttacks(tile, occupancy) | bishopAttacks(tile, occupancy);
+    }
+
+    private static void initTile(final int tile,
+                                 final int[][] directions,
+                                 final long[] masks,
+                                 final long[] magics,
+                                 final int[] shifts,
+                                 final long[][] attacks,
+                                 final SplittableRandom random) {
+        final long mask = relevantOccupancyMask(tile, directions);
+        final int bits = Long.bitCount(mask);
+        final int size = 1 << bits;
+        // Every subset of the mask (carry-rippler enumeration) with its attack set, walked ray by ray.
+        final long[] occupancies = new long[size];
+        final long[] reference = new long[size];
+        long subset = 0L;
+        for(int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            reference[i] = slidingAttacks(tile, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+        final long[] table = new long[size];
+        // Attempt which last wrote each slot - saves clearing the table for every candidate magic.
+        final int[] writtenBy = new int[size];
+        for(int attempt = 1; ; attempt++) {
+            // Sparse random numbers (few bits set) make good magics much more often.
+            final long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if(Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            boolean collision = false;
+            for(int i = 0; i < size && !collision; i++) {
+                final int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if(writtenBy[index] != attempt) {
+                    writtenBy[index] = attempt;
+                    table[index] = reference[i];
+                } else if(table[index] != reference[i]) {
+                    collision = true; // Two occupancies with different attacks share an index - try another magic.
+                }
+            }
+            if(!collision) {
+                masks[tile] = mask;
+                magics[tile] = magic;
+                shifts[tile] = 64 - bits;
+                attacks[tile] = table;
+                return;
+            }
+        }
+    }
+
+    // Tiles along the rays, without the last tile of each ray - a piece there blocks nothing behind it.
+    private static long relevantOccupancyMask(final int tile, final int[][] directions) {
+        long mask = 0L;
+        for(final int[] direction : directions) {
+            int row = tile / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tile % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while(isOnBoard(row + direction[0], column + direction[1])) {
+                mask |= 1L << (row * BoardUtils.NUM_TILES_PER_ROW + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(final int tile, final long occupancy, final int[][] directions) {
+        long attacks = 0L;
+        for(final int[] direction : directions) {
+            int row = tile / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tile % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while(isOnBoard(row, column)) {
+                final long bit = 1L << (row * BoardUtils.NUM_TILES_PER_ROW + column);
+                attacks |= bit;
+                if((occupancy & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+}
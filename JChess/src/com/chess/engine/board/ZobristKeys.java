@@ -0,0 +1,66 @@
+package com.chess.engine.board;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64 bit numbers for Zobrist hashing. The key of a position is the XOR of the numbers of everything in it -
+ * each piece on its tile, side to move, castling rights and en passant file (only when a pawn can capture there,
+ * as the repetition rule counts positions). Making a move only XORs out what changed and XORs in the new state,
+ * so keys are updated incrementally instead of being recalculated.
+ *
+ * Fixed seed - keys stay the same between runs, so they can be stored (e.g. in a game database).
+ */
+public final class ZobristKeys {
+
+    private static final long SEED = 0x4A436865737321L;
+
+    // Indexed by piece code (alliance * 6 + piece type, see MutableBoard) and tile.
+    private static final long[][] PIECE_KEYS = new long[2 * MutableBoard.NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+    // Indexed by castling rights bit mask (MutableBoard.WHITE_KING_SIDE ...).
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_FILE_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        for(final long[] pieceKeys : PIECE_KEYS) {
+            for(int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        // One number per castling right, the key of a combination is the XOR of its rights.
+        final long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for(int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+            for(int bit = 0; bit < rightKeys.length; bit++) {
+                if((rights & (1 << bit)) != 0) {
+                    CASTLING_KEYS[rights] ^= rightKeys[bit];
+                }
+            }
+        }
+        for(int i = 0; i < EN_PASSANT_FILE_KEYS.length; i++) {
+            EN_PASSANT_FILE_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private ZobristKeys() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static long pieceKey(final int pieceCode, final int tile) {
+        return PIECE_KEYS[pieceCode][tile];
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    // Key for the en passant tile (only its file counts), 0 for MutableBoard.NO_SQUARE.
+    public static long enPassantKey(final int enPassantTile) {
+        return enPassantTile == MutableBoard.NO_SQUARE ? 0L : EN_PASSANT_FILE_KEYS[enPassantTile % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    public static long blackToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+}
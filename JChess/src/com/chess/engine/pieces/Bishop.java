@@ -1,72 +1,37 @@
 package com.chess.engine.pieces;
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import java.util.ArrayList;
+import com.chess.engine.board.SlidingAttacks;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * TODO DOCUMENTATION
  */
 public class Bishop extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = { -9, -7, 7, 9 };
-
     //Constructor
     public Bishop(int piecePos, Alliance pieceAll) {
-        super(PieceType.BISHOP, piecePos, pieceAll);
+        super(PieceType.BISHOP, piecePos, pieceAll, true);
+    }
+
+    public Bishop(final int piecePos, final Alliance pieceAll, final boolean isFirstMove) {
+        super(PieceType.BISHOP, piecePos, pieceAll, isFirstMove);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if(isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEightColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break; // For Edge cases when BISHOP is in first or eight column (different methods) we break the flow as this particular moves does not follow the rules.
-                }
-
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); // Create new move, pass this.piece, location we want to move.
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break; // If occupied tile is 'on the line' then algorithm need to break. BISHOP cannot move through other pieces.
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableList(legalMoves);
+        // All tiles along the rays up to and including the first blocker - one magic bitboard lookup.
+        return calculateMovesToTiles(board, SlidingAttacks.bishopAttacks(this.piecePosition, board.getBitBoard().getOccupancy()));
     }
 
     @Override
     public Piece movePiece(Move move) {
-        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.BISHOP.toString();
     }
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    private static boolean isEightColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHT_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9);
-    }
 }
@@ -1,8 +1,8 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 
@@ -13,10 +13,12 @@ import java.util.List;
 
 public class King extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATE = {-9,-8,-7,-1,1,7,8,9};
-
     public King(final int piecePos, final Alliance pieceAll) {
-        super(PieceType.KING, piecePos, pieceAll);
+        super(PieceType.KING, piecePos, pieceAll, true);
+    }
+
+    public King(final int piecePos, final Alliance pieceAll, final boolean isFirstMove) {
+        super(PieceType.KING, piecePos, pieceAll, isFirstMove);
     }
 
     @Override
@@ -24,25 +26,17 @@ public class King extends Piece {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for(final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE) {
-            final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-
-            if(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-
-                if(isEightColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isFirstColumnExclusion(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
-
-                if(!candidateDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); // Create new move, pass this.piece, location we want to move.
-                } else {
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                    if(this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
+        // Destinations precomputed per tile - already on the board, no column wrap checks needed.
+        for(final int candidateDestinationCoordinate : AttackTables.kingDestinations(this.piecePosition)) {
+            final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+
+            if(!candidateDestinationTile.isTileOccupied()) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); // Create new move, pass this.piece, location we want to move.
+            } else {
+                final Piece pieceAtDestination = candidateDestinationTile.getPiece();
+                final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
+                if(this.pieceAlliance != pieceAlliance) {
+                    legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
                 }
             }
         }
@@ -52,18 +46,11 @@ public class King extends Piece {
 
     @Override
     public Piece movePiece(Move move) {
-        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.KING.toString();
     }
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset == -9) || (candidateOffset == -1) || candidateOffset == 7);
-    }
-
-    private static boolean isEightColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHT_COLUMN[currentPosition] && ((candidateOffset == -7) || candidateOffset == 1 || candidateOffset == 9);
-    }
 }
@@ -1,8 +1,8 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 
@@ -12,41 +12,31 @@ import java.util.List;
 
 public class Knight extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {-17, -15, -10, -6, 6, 10, 15, 17};
-
     public Knight(final int piecePos, final Alliance pieceAll) {
-        super(PieceType.KNIGHT, piecePos, pieceAll);
+        super(PieceType.KNIGHT, piecePos, pieceAll, true);
+    }
+
+    public Knight(final int piecePos, final Alliance pieceAll, final boolean isFirstMove) {
+        super(PieceType.KNIGHT, piecePos, pieceAll, isFirstMove);
     }
 
     @Override
     public List<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
 
-        for(final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            final int candidateDestinationCoordinate;
-            candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-
-            if(BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if((isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isSecondColumnExclusion(this.piecePosition, currentCandidateOffset)) ||
-                        isSeventhColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isEightcolumnExclusion(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+        // Destinations precomputed per tile - already on the board, no column wrap checks needed.
+        for(final int candidateDestinationCoordinate : AttackTables.knightDestinations(this.piecePosition)) {
+            final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
 
-                if(!candidateDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); // Create new move, pass this.piece, location we want to move.
-                } else {
+            if(!candidateDestinationTile.isTileOccupied()) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); // Create new move, pass this.piece, location we want to move.
+            } else {
 
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
+                final Piece pieceAtDestination = candidateDestinationTile.getPiece();
+                final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
 
-                    if(this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
+                if(this.pieceAlliance != pieceAlliance) {
+                    legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
                 }
             }
         }
@@ -55,25 +45,12 @@ public class Knight extends Piece {
 
     @Override
     public Piece movePiece(Move move) {
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.KNIGHT.toString();
     }
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && ((candidateOffset == -17) || (candidateOffset == -10) || candidateOffset == 6 || candidateOffset ==15);
-    }
-
-    private static boolean isSecondColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.SECOND_COLUMN[currentPosition] && ((candidateOffset == -10) || candidateOffset == 6);
-    }
-    private static boolean isSeventhColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && ((candidateOffset == -6) || candidateOffset == 10);
-    }
-    private static boolean isEightcolumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHT_COLUMN[currentPosition] && ((candidateOffset == -15) || (candidateOffset == -6) || candidateOffset == 10 || candidateOffset == 17);
-    }
 
 }
@@ -1,9 +1,11 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.AttackTables;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Tile;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -15,10 +17,15 @@ import java.util.List;
  */
 public class Pawn extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATE = {7, 8, 9, 16}; // 16 is for first 'jump' move. 9 & 7 is for attack.
+    private final static int[] CANDIDATE_MOVE_COORDINATE = {8, 16}; // 16 is for first 'jump' move. Attacks come from AttackTables.
+    private final static PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
     public Pawn(final int piecePos, final Alliance pieceAll) {
-        super(PieceType.PAWN, piecePos, pieceAll);
+        super(PieceType.PAWN, piecePos, pieceAll, true);
+    }
+
+    public Pawn(final int piecePos, final Alliance pieceAll, final boolean isFirstMove) {
+        super(PieceType.PAWN, piecePos, pieceAll, isFirstMove);
     }
 
     @Override
@@ -33,38 +40,59 @@ public class Pawn extends Piece {
             }
             //If Pawn moves 1 tile forward and tile is not occupied.
             if(currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate)); //TODO implement promotion mechanic
+                addPawnMove(legalMoves, new Move.PawnMove(board, this, candidateDestinationCoordinate));
             } else if(currentCandidateOffset == 16 && this.isFirstMove() &&
-                    (BoardUtils.SECOND_ROW[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.getPieceAlliance().isWhite())) {
+                    ((BoardUtils.SECOND_ROW[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
+                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.getPieceAlliance().isWhite()))) {
                 final int behindCandidateDestionationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
                 // If the tile behind the candidate and the destination candidate is not occupied.
                 if(!board.getTile(behindCandidateDestionationCoordinate).isTileOccupied() &&
                         !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    }
-                // FOR ATTACK - When white piece is on the 8th column or Black piece is on the 1st column.
-                }else if(currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGHT_COLUMN[this.piecePosition] && this.getPieceAlliance().isWhite())
-                            || (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.getPieceAlliance().isBlack()))) {
-                        if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                            final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                            if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                                //TODO
-                                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                            }
-                        }
-                } else if(currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.getPieceAlliance().isWhite())
-                    || (BoardUtils.EIGHT_COLUMN[this.piecePosition] && this.getPieceAlliance().isBlack()))) {
+                    legalMoves.add(new Move.PawnJump(board, this, candidateDestinationCoordinate));
                 }
             }
+        }
+        // FOR ATTACK - diagonal tiles precomputed per tile and alliance, none for a pawn on the board edge column.
+        for(final int candidateDestinationCoordinate : AttackTables.pawnAttackDestinations(this.pieceAlliance, this.piecePosition)) {
+            addPawnAttack(board, legalMoves, candidateDestinationCoordinate);
+        }
         return Collections.unmodifiableList(legalMoves);
     }
 
+    /**
+     * Diagonal move - either takes an opponent's piece on the tile or the pawn right behind it (en passant).
+     */
+    private void addPawnAttack(final Board board, final List<Move> legalMoves, final int candidateDestinationCoordinate) {
+        final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+        if(candidateDestinationTile.isTileOccupied()) {
+            final Piece pieceOnCandidate = candidateDestinationTile.getPiece();
+            if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
+                addPawnMove(legalMoves, new Move.PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+            }
+        } else {
+            // En passant - opponent's pawn has just jumped over the (empty) destination tile.
+            final Pawn enPassantPawn = board.getEnPassantPawn();
+            if(enPassantPawn != null && this.pieceAlliance != enPassantPawn.getPieceAlliance() &&
+                    enPassantPawn.getPiecePosition() == candidateDestinationCoordinate - (this.pieceAlliance.getDirection() * 8)) {
+                legalMoves.add(new Move.PawnEnPassantAttMove(board, this, candidateDestinationCoordinate, enPassantPawn));
+            }
+        }
+    }
+
+    // Pawn reaching the last row has to promote - one move for every piece it can turn into.
+    private void addPawnMove(final List<Move> legalMoves, final Move pawnMove) {
+        if(this.pieceAlliance.isPawnPromotionSquare(pawnMove.getDestinationCoordinate())) {
+            for(final PieceType promotionType : PROMOTION_TYPES) {
+                legalMoves.add(new Move.PawnPromotion(pawnMove, promotionType));
+            }
+        } else {
+            legalMoves.add(pawnMove);
+        }
+    }
+
     @Override
     public Piece movePiece(Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
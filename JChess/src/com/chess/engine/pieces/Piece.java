@@ -4,7 +4,9 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class Piece {
@@ -15,11 +17,11 @@ public abstract class Piece {
     private final int cachedHashCode;
 
     //Constructor
-    Piece(final PieceType pieceType, final int piecePos, final Alliance pieceAll) {
+    Piece(final PieceType pieceType, final int piecePos, final Alliance pieceAll, final boolean isFirstMove) {
         this.piecePosition = piecePos;
         this.pieceAlliance = pieceAll;
         this.pieceType = pieceType;
-        this.isFirstMove = false; // TODO
+        this.isFirstMove = isFirstMove; // Pieces are created unmoved, movePiece() creates them with false.
         this.cachedHashCode = calcHashCode();
     }
 
@@ -73,6 +75,29 @@ public abstract class Piece {
 
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    /**
+     * Moves to the attacked tiles (a bitboard, see SlidingAttacks) - MajorMove to empty tiles, AttackMove onto
+     * opponent's pieces, tiles with own pieces are skipped.
+     * @param board
+     * @param attackedTiles
+     * @return
+     */
+    protected List<Move> calculateMovesToTiles(final Board board, final long attackedTiles) {
+        final List<Move> legalMoves = new ArrayList<>(Long.bitCount(attackedTiles));
+        long destinations = attackedTiles & ~board.getBitBoard().getOccupancy(this.pieceAlliance);
+        while(destinations != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            final Piece pieceAtDestination = board.getTile(candidateDestinationCoordinate).getPiece();
+            if(pieceAtDestination == null) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
+            }
+        }
+        return Collections.unmodifiableList(legalMoves);
+    }
+
     public abstract Piece movePiece(Move move);
 
     /**
@@ -80,7 +105,7 @@ public abstract class Piece {
      */
     public enum PieceType {
 
-        BISHOP("B") {
+        BISHOP("B", 330) {
             @Override
             public boolean isKing(){
                 return false;
@@ -89,8 +114,12 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new Bishop(piecePosition, pieceAlliance, isFirstMove);
+            }
         },
-        KING("K"){
+        KING("K", 10000){
             @Override
             public boolean isKing(){
                 return true;
@@ -99,8 +128,12 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new King(piecePosition, pieceAlliance, isFirstMove);
+            }
         },
-        KNIGHT("N"){
+        KNIGHT("N", 320){
             @Override
             public boolean isKing(){
                 return false;
@@ -109,8 +142,12 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new Knight(piecePosition, pieceAlliance, isFirstMove);
+            }
         },
-        PAWN("P"){
+        PAWN("P", 100){
             @Override
             public boolean isKing(){
                 return false;
@@ -119,8 +156,12 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new Pawn(piecePosition, pieceAlliance, isFirstMove);
+            }
         },
-        QUEEN("Q"){
+        QUEEN("Q", 900){
             @Override
             public boolean isKing(){
                 return false;
@@ -129,8 +170,12 @@ public abstract class Piece {
             public boolean isRook() {
                 return false;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new Queen(piecePosition, pieceAlliance, isFirstMove);
+            }
         },
-        ROOK("R"){
+        ROOK("R", 500){
             @Override
             public boolean isKing(){
                 return false;
@@ -139,12 +184,23 @@ public abstract class Piece {
             public boolean isRook() {
                 return true;
             }
+            @Override
+            public Piece createPiece(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+                return new Rook(piecePosition, pieceAlliance, isFirstMove);
+            }
         };
 
         private String pieceName;
+        private final int pieceValue;
 
-        PieceType(final String pieceName) {
+        PieceType(final String pieceName, final int pieceValue) {
             this.pieceName = pieceName;
+            this.pieceValue = pieceValue;
+        }
+
+        // Material value in centipawns (pawn = 100). The King is priceless, its value only has to outweigh the rest.
+        public int getPieceValue() {
+            return this.pieceValue;
         }
 
         @Override
@@ -155,6 +211,8 @@ public abstract class Piece {
         // Making abstract method saves casting.
         public abstract boolean isKing();
         public abstract boolean isRook();
+        // Factory for rebuilding pieces from a type, e.g. when a Board is restored from a BitBoard.
+        public abstract Piece createPiece(int piecePosition, Alliance pieceAlliance, boolean isFirstMove);
     }
 
 }
@@ -14,10 +14,13 @@ import java.util.List;
 
 public class BlackPlayer extends Player {
 
-    public BlackPlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
+    }
+
+    @Override
+    protected Collection<Move> getStandardLegalMoves() {
+        return this.board.getBlackStandardLegalMoves();
     }
 
     @Override
@@ -37,8 +40,7 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegalMoves,
-                                                    final Collection<Move> opponentsLegalMoves) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegalMoves) {
         final List<Move> kingCastles = new ArrayList<>();
         // Check if it is King first move and King is not in check.
         if(this.playerKing.isFirstMove() && !this.isInCheck()) {
@@ -49,8 +51,8 @@ public class BlackPlayer extends Player {
                 // Check if rook is on the tile (rook default spawn place) AND if it is this piece(rook) first move.
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
                     // Make sure that opponent won't be able to attack the pieces after the Castle Move.
-                    if(Player.calcAttackOnTile(5, opponentsLegalMoves).isEmpty() &&
-                            Player.calcAttackOnTile(6, opponentsLegalMoves).isEmpty() &&
+                    if(!isTileAttacked(5) &&
+                            !isTileAttacked(6) &&
                             rookTile.getPiece().getPieceType().isRook()){
                         kingCastles.add(new Move.KingSideCastleMove(this.board,
                                                                     this.playerKing,
@@ -69,7 +71,11 @@ public class BlackPlayer extends Player {
                 // Get reference to Queen side Rook piece.
                 final Tile rookTile = this.board.getTile(0);
                 // Check if Tile is occupied AND it is first move of the Piece(only Rook can satisfy this).
-                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                // King passes tile 3 and lands on 2, so those two cannot be attacked (1 is crossed by Rook only).
+                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                        !isTileAttacked(3) &&
+                        !isTileAttacked(2) &&
+                        rookTile.getPiece().getPieceType().isRook()) {
                     kingCastles.add(new Move.QueenSideCastleMove(this.board,
                                                                  this.playerKing,
                                               2,
@@ -5,23 +5,23 @@ import com.chess.engine.board.Move;
 public enum MoveStatus {
     DONE {
         @Override
-        boolean isDone() {
+        public boolean isDone() {
             return true;
         }
     },
     ILLEGAL_MOVE {
         @Override
-        boolean isDone() {
+        public boolean isDone() {
             return false;
         }
     },
     LEAVES_PLAYER_IN_CHECK {
         @Override
-        boolean isDone() {
+        public boolean isDone() {
             return false;
         }
     };
 
 
-    abstract boolean isDone();
+    public abstract boolean isDone();
 }
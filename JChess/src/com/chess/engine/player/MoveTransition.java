@@ -23,4 +23,13 @@ public class MoveTransition {
     public MoveStatus getMoveStatus() {
         return this.movestatus;
     }
+
+    // Board after the move - same board as before when the move was not done.
+    public Board getTransitionBoard() {
+        return this.transitionBoard;
+    }
+
+    public Move getMove() {
+        return this.move;
+    }
 }
@@ -8,25 +8,21 @@ import com.chess.engine.pieces.Piece;
 
 import java.awt.geom.Area;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 // Abstract class of player
 public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    // Calculated on first use and then kept - same as the move lists in Board.
+    private volatile Collection<Move> legalMoves;
+    private volatile Boolean isInCheck;
+    private volatile Boolean hasEscapeMoves;
 
-    Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves) {
+    Player(final Board board) {
 
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = Collections.unmodifiableList(Stream.concat(legalMoves.stream(), opponentMoves.stream()).collect(Collectors.toList()));
-        this.isInCheck = !Player.calcAttackOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty(); //If the list (of possible attacks for player's King) is not empty then player is in check/
 
     }
 
@@ -35,27 +31,26 @@ public abstract class Player {
         return this.playerKing;
     }
 
-    // Getter method for Player's legal moves.
+    // Getter method for Player's legal moves - piece moves plus castling.
     public Collection<Move> getLegalMoves(){
-        return this.legalMoves;
+        Collection<Move> moves = this.legalMoves;
+        if(moves == null) {
+            final Collection<Move> standardLegalMoves = getStandardLegalMoves();
+            final List<Move> allMoves = new ArrayList<>(standardLegalMoves);
+            allMoves.addAll(calculateKingCastles(standardLegalMoves));
+            moves = Collections.unmodifiableList(allMoves);
+            this.legalMoves = moves;
+        }
+        return moves;
     }
 
     /**
-     * Passing the king's current tile location and enemy moves, then check if any of possible enemy moves overlaps with current King's position.
-     * If it does overlap then this attack attacks the King and this.player is in check (isInCheck - true).
-     * @param piecePosition
-     * @param moves
+     * Checks if the opponent attacks the tile (empty or not) - for castling, the King may not pass attacked tiles.
+     * @param tile
      * @return
      */
-    protected static Collection<Move> calcAttackOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        // Checking every potential enemy move for threat against King piece.
-        for(final Move move : moves) {
-            if(piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
-        }
-        return Collections.unmodifiableList(attackMoves);
+    protected boolean isTileAttacked(final int tile) {
+        return this.board.isSquareAttacked(tile, getOppenent().getAlliance());
     }
 
     private King establishKing() {
@@ -67,41 +62,56 @@ public abstract class Player {
         throw new RuntimeException("Should not reach here! Not valid board was created - NO KING ");
     }
 
-    //Testing if move passed is in player's moves collection.
+    //Testing if move passed is in player's moves collection - looked up in the board's move index for the side to move.
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        if(this.board.getCurrentPlayer() == this) {
+            return this.board.isCurrentPlayerMove(move);
+        }
+        return getLegalMoves().contains(move);
     }
 
     // Enemy pieces threaten the King figure, BUT there is possibility to escape.
     public boolean isInCheck() {
-        return this.isInCheck;
+        Boolean inCheck = this.isInCheck;
+        if(inCheck == null) {
+            // Side to move uses the checkers the board keeps anyway. The other side is in check on boards made by illegal moves only.
+            inCheck = this.board.getCurrentPlayer() == this ? this.board.getCheckers() != 0L :
+                      this.board.isSquareAttacked(this.playerKing.getPiecePosition(), getOppenent().getAlliance());
+            this.isInCheck = inCheck;
+        }
+        return inCheck;
     }
 
     // King is threatened and there is NO safe moves available.
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     // King is not in check, but has NO safe moves.
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     /**
      * Helper method for isInCheckMate method.
-     * The method performs the "theoretical" moves and check if they are legal && King is not in check.
+     * The method checks the moves against the checkers and pinned pieces (Board.isLegalMove) - no move is executed.
      *
      * isInCheck is not defined in constructor as it would start an infinite loop (board creation -> checking moves -> board creation ...)
      * @return
      */
     protected boolean hasEscapeMoves() {
-        for(final Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if(transition.getMoveStatus().isDone()) {
-                return true;
+        Boolean escapeMoves = this.hasEscapeMoves;
+        if(escapeMoves == null) {
+            escapeMoves = false;
+            for(final Move move : getLegalMoves()) {
+                if(this.board.isLegalMove(move)) {
+                    escapeMoves = true;
+                    break;
+                }
             }
+            this.hasEscapeMoves = escapeMoves;
         }
-        return false;
+        return escapeMoves;
     }
 
     public boolean isCastled() {
@@ -121,21 +131,19 @@ public abstract class Player {
         if(!isMoveLegal(move)) {
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
-        // Polymorphically execute the move.
-        final Board transitionBoard = move.execute();
-        // Calculate the attacks for current opponents King piece && calculate all current player legal moves.
-        final Collection<Move> kingAttacks = Player.calcAttackOnTile(transitionBoard.getCurrentPlayer().getOppenent().getPlayerKing().getPiecePosition(),
-                transitionBoard.getCurrentPlayer().getLegalMoves());
-        //If there are some attacks on King piece.
-        if(!kingAttacks.isEmpty()) {
+        // Pins and checks tell whether the King would be attacked - only a legal move builds a new board.
+        if(!this.board.isLegalMove(move)) {
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        // Polymorphically execute the move.
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     // Polymorphic method
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOppenent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegalMoves, Collection<Move> opponentsLegalMoves);
+    // Moves of the player's pieces without castling - taken from the board, which calculates them lazily.
+    protected abstract Collection<Move> getStandardLegalMoves();
+    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegalMoves);
 }
@@ -14,10 +14,13 @@ import java.util.List;
 
 public class WhitePlayer extends Player {
 
-    public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
+    }
+
+    @Override
+    protected Collection<Move> getStandardLegalMoves() {
+        return this.board.getWhiteStandardLegalMoves();
     }
 
     @Override
@@ -37,7 +40,7 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegalMoves, final Collection<Move> opponentsLegalMoves) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegalMoves) {
         final List<Move> kingCastles = new ArrayList<>();
         // Check if it is King first move and King is not in check.
         if(this.playerKing.isFirstMove() && !this.isInCheck()) {
@@ -48,8 +51,8 @@ public class WhitePlayer extends Player {
                 // Check if rook is on the tile (rook default spawn place) AND if it is this piece(rook) first move.
                 if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
                     // Make sure that opponent won't be able to attack the pieces after the Castle Move.
-                    if(Player.calcAttackOnTile(61, opponentsLegalMoves).isEmpty() &&
-                            Player.calcAttackOnTile(62, opponentsLegalMoves).isEmpty() &&
+                    if(!isTileAttacked(61) &&
+                            !isTileAttacked(62) &&
                             rookTile.getPiece().getPieceType().isRook()){
                         kingCastles.add(new Move.KingSideCastleMove(this.board,
                                                                     this.playerKing,
@@ -68,7 +71,11 @@ public class WhitePlayer extends Player {
                 // Get reference to Queen side Rook piece.
                 final Tile rookTile = this.board.getTile(56);
                 // Check if Tile is occupied AND it is first move of the Piece(only Rook can satisfy this).
-                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
+                // King passes tile 59 and lands on 58, so those two cannot be attacked (57 is crossed by Rook only).
+                if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                        !isTileAttacked(59) &&
+                        !isTileAttacked(58) &&
+                        rookTile.getPiece().getPieceType().isRook()) {
                     kingCastles.add(new Move.QueenSideCastleMove(this.board,
                                                                  this.playerKing,
                                                                 58,
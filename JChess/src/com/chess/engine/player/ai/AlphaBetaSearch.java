@@ -0,0 +1,494 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Negamax alpha-beta search with iterative deepening - depth 1, 2, 3 ... until maximum depth, time budget or
+ * node budget runs out. The best move of the last finished depth is searched first in the next one, so when the
+ * search is stopped half way through a depth the best move found so far is still a sound answer.
+ *
+ * Results are kept in a TranspositionTable keyed by Zobrist key - a position reached again (through another move
+ * order, or in the next iteration) is cut off or at least searches its stored best move first. The table may be
+ * shared with other searches running at the same time.
+ *
+ * Moves are tried in the order of MovePicker - table move, good captures, killers, then quiet moves by history.
+ * At depth 0 a quiescence search plays out the captures which do not lose material (by static exchange
+ * evaluation), so a leaf is never scored in the middle of an exchange.
+ *
+ * A position repeating one from earlier in the line or the game (GameHistory), or reached after fifty moves
+ * without pawn move or capture, scores as a draw.
+ *
+ * The search itself runs on a MutableBoard (make / unmake), only the chosen move is turned back into a Move.
+ * One instance searches one position at a time; stop() may be called from any thread.
+ */
+public class AlphaBetaSearch implements MoveStrategy {
+
+    public static final int MATE_SCORE = 100000;
+    private static final int INFINITE_SCORE = MATE_SCORE + 1;
+    // Mate scores are MATE_SCORE - plies to mate, anything above this limit is a forced mate.
+    public static final int MATE_THRESHOLD = MATE_SCORE - 1000;
+
+    static final int MAX_PLY = 128;
+    static final int MAX_MOVES = 256;
+    private static final int KILLERS_PER_PLY = 2;
+    // History scores are halved when one grows past this, so recent cutoffs keep outweighing old ones.
+    private static final int MAX_HISTORY_SCORE = 1 << 20;
+    // Clock / node budget are checked every 1024 nodes only.
+    private static final int CHECK_LIMITS_MASK = 1023;
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final long nodeBudget;
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator evaluator;
+    private final int[] rootMoves = new int[MAX_MOVES];
+    // Evasions of a check given on the fiftieth move - only generated to tell mate from a draw.
+    private final int[] fiftyMoveEvasions = new int[MAX_MOVES];
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    // Quiet moves which caused a beta cutoff, per ply - likely to refute the sibling positions too.
+    private final int[][] killerMoves = new int[MAX_PLY][KILLERS_PER_PLY];
+    // Per side, indexed by from * 64 + to - how often (weighted by depth) the quiet move caused a cutoff anywhere.
+    private final int[][] history = new int[2][BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    // Positions of the game before the root and of the line searched, for repetitions.
+    private final GameHistory positionHistory = new GameHistory();
+
+    private MutableBoard board;
+    private long deadline;
+    private long nodes;
+    private volatile boolean stopped;
+    private int bestMove;
+    private int bestScore;
+    private int completedDepth;
+
+    /**
+     * @param maxDepth deepest iteration to search
+     * @param timeBudgetMillis time for one move, Long.MAX_VALUE for none
+     * @param nodeBudget nodes for one move, Long.MAX_VALUE for none
+     * @param transpositionTable may be shared between searches
+     * @param evaluator scores the leaves
+     */
+    public AlphaBetaSearch(final int maxDepth,
+                           final long timeBudgetMillis,
+                           final long nodeBudget,
+                           final TranspositionTable transpositionTable,
+                           final BoardEvaluator evaluator) {
+        this.maxDepth = Math.min(maxDepth, MAX_PLY - 1);
+        this.timeBudgetNanos = timeBudgetMillis >= Long.MAX_VALUE / 1_000_000L ? Long.MAX_VALUE : timeBudgetMillis * 1_000_000L;
+        this.nodeBudget = nodeBudget;
+        this.transpositionTable = transpositionTable;
+        this.evaluator = evaluator;
+        for(int i = 0; i < MAX_PLY; i++) {
+            this.movePickers[i] = new MovePicker();
+        }
+    }
+
+    public AlphaBetaSearch(final int maxDepth,
+                           final long timeBudgetMillis,
+                           final long nodeBudget,
+                           final TranspositionTable transpositionTable) {
+        this(maxDepth, timeBudgetMillis, nodeBudget, transpositionTable, new StandardBoardEvaluator());
+    }
+
+    public AlphaBetaSearch(final int maxDepth,
+                           final long timeBudgetMillis,
+                           final long nodeBudget) {
+        this(maxDepth, timeBudgetMillis, nodeBudget, new TranspositionTable(DEFAULT_HASH_MEGABYTES));
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return toMove(board, search(MutableBoard.fromBoard(board)));
+    }
+
+    // Turns the packed move found for the board back into a Move of the board.
+    static Move toMove(final Board board, final int packedMove) {
+        return PackedMove.toMove(board, packedMove);
+    }
+
+    /**
+     * Searches the position, which is left unchanged.
+     * @param board
+     * @return best move found, PackedMove.NONE when the side to move has no legal move
+     */
+    public int search(final MutableBoard board) {
+        return search(board, null);
+    }
+
+    /**
+     * Searches the position, which is left unchanged, as a position of the game - lines which repeat a position of
+     * the game score as a draw.
+     * @param board
+     * @param gameHistory positions of the game up to the board's one (or before it), null for none - copied
+     * @return best move found, PackedMove.NONE when the side to move has no legal move
+     */
+    public int search(final MutableBoard board, final GameHistory gameHistory) {
+        prepare(gameHistory);
+        this.transpositionTable.newSearch();
+        return search(board, 1);
+    }
+
+    // Clears a previous stop() and takes over the game history before the search is handed to another thread -
+    // see LazySmpSearch.
+    void prepare(final GameHistory gameHistory) {
+        this.stopped = false;
+        if(gameHistory == null) {
+            this.positionHistory.clear();
+        } else {
+            this.positionHistory.copyFrom(gameHistory);
+        }
+    }
+
+    /**
+     * Iterative deepening from startDepth. Unlike search(MutableBoard) neither clears stop() nor starts a new
+     * transposition table generation nor sets the game history, the caller (LazySmpSearch) does that once for all
+     * its threads with prepare().
+     * @param board
+     * @param startDepth
+     * @return
+     */
+    int search(final MutableBoard board, final int startDepth) {
+        final long startTime = System.nanoTime();
+        this.board = board;
+        this.deadline = this.timeBudgetNanos == Long.MAX_VALUE ? Long.MAX_VALUE : startTime + this.timeBudgetNanos;
+        this.nodes = 0;
+        this.bestMove = PackedMove.NONE;
+        this.bestScore = 0;
+        this.completedDepth = 0;
+        // Killers belong to the previous position, history of the last search still says something but less.
+        for(final int[] killers : this.killerMoves) {
+            Arrays.fill(killers, PackedMove.NONE);
+        }
+        for(final int[] sideHistory : this.history) {
+            for(int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 3;
+            }
+        }
+
+        final GameHistory positionHistory = this.positionHistory;
+        if(positionHistory.isEmpty() || positionHistory.getZobristKey() != board.getZobristKey()) {
+            positionHistory.record(board);
+        }
+        final int[] rootMoves = this.rootMoves;
+        final int rootMoveCount = board.generateLegalMoves(rootMoves);
+        if(rootMoveCount == 0) {
+            this.bestScore = board.isInCheck() ? -MATE_SCORE : 0;
+            return PackedMove.NONE;
+        }
+        sortByMvvLva(rootMoves, rootMoveCount);
+        int bestMove = rootMoves[0];
+        for(int depth = Math.min(startDepth, this.maxDepth); depth <= this.maxDepth; depth++) {
+            // Another search sharing the table may already know a better first move than our last iteration.
+            final long rootEntry = this.transpositionTable.probe(board.getZobristKey());
+            if(rootEntry != TranspositionTable.MISS && TranspositionTable.getDepth(rootEntry) >= depth - 1) {
+                moveToFront(rootMoves, rootMoveCount, TranspositionTable.getMove(rootEntry));
+            }
+            int alpha = -INFINITE_SCORE;
+            int iterationBestMove = PackedMove.NONE;
+            for(int i = 0; i < rootMoveCount; i++) {
+                board.makeMove(rootMoves[i]);
+                positionHistory.record(board);
+                final int score = -negamax(depth - 1, -INFINITE_SCORE, -alpha, 1);
+                positionHistory.undo();
+                board.unmakeMove();
+                if(this.stopped) {
+                    break;
+                }
+                if(score > alpha) {
+                    alpha = score;
+                    iterationBestMove = rootMoves[i];
+                }
+            }
+            // Previous best move is searched first, so a better move found in an unfinished iteration is still better.
+            if(iterationBestMove != PackedMove.NONE) {
+                bestMove = iterationBestMove;
+                this.bestScore = alpha;
+                moveToFront(rootMoves, rootMoveCount, bestMove);
+            }
+            if(this.stopped) {
+                break;
+            }
+            this.completedDepth = depth;
+            this.transpositionTable.store(board.getZobristKey(), bestMove, scoreToTable(this.bestScore, 0), depth, TranspositionTable.EXACT);
+            // Next depth takes several times longer than this one - do not start it when it cannot finish.
+            if(this.deadline != Long.MAX_VALUE && System.nanoTime() - startTime > (this.deadline - startTime) / 2) {
+                break;
+            }
+            // Forced mate found, deeper search will not change the result.
+            if(Math.abs(alpha) >= MATE_THRESHOLD) {
+                break;
+            }
+        }
+        this.bestMove = bestMove;
+        return bestMove;
+    }
+
+    private int negamax(final int depth, int alpha, final int beta, final int ply) {
+        if((++this.nodes & CHECK_LIMITS_MASK) == 0) {
+            checkLimits();
+        }
+        if(this.stopped) {
+            return 0;
+        }
+        final MutableBoard board = this.board;
+        if(this.positionHistory.isRepetition()) {
+            return 0;
+        }
+        // Drawn by the fifty move rule - unless the move which reached the fifty was mate.
+        if(board.getHalfmoveClock() >= GameHistory.FIFTY_MOVE_PLIES) {
+            return board.isInCheck() && board.generateLegalMoves(this.fiftyMoveEvasions) == 0 ? -MATE_SCORE + ply : 0;
+        }
+        final long key = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int tableMove = PackedMove.NONE;
+        if(entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.getMove(entry);
+            if(TranspositionTable.getDepth(entry) >= depth) {
+                final int tableScore = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                final int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT ||
+                   (bound == TranspositionTable.LOWER_BOUND && tableScore >= beta) ||
+                   (bound == TranspositionTable.UPPER_BOUND && tableScore <= alpha)) {
+                    return tableScore;
+                }
+            }
+        }
+        if(depth == 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+        final int us = board.getSideToMove();
+        // Table move comes from another visit (or a key collision) - the picker only uses it if it is valid here.
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.init(board, tableMove, this.killerMoves[ply], this.history[us]);
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = PackedMove.NONE;
+        int legalMoves = 0;
+        final long checkers = board.getCheckers();
+        final long pinned = board.getPinnedPieces(us);
+        int move;
+        while((move = movePicker.next()) != PackedMove.NONE) {
+            // Pseudo legal move which leaves own King attacked - skip it, checkers and pins tell without making it.
+            if(!board.isLegal(move, checkers, pinned)) {
+                continue;
+            }
+            board.makeMove(move);
+            this.positionHistory.record(board);
+            legalMoves++;
+            final int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            this.positionHistory.undo();
+            board.unmakeMove();
+            if(this.stopped) {
+                return 0;
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if(score > alpha) {
+                    alpha = score;
+                    if(alpha >= beta) {
+                        if(!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                            updateQuietCutoff(move, us, depth, ply);
+                        }
+                        break; // Opponent will not allow this line - no need to look at the other moves.
+                    }
+                }
+            }
+        }
+        if(legalMoves == 0) {
+            // Checkmate (sooner is better for the winner) or stalemate.
+            return checkers != 0 ? -MATE_SCORE + ply : 0;
+        }
+        final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                          bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches captures and promotions only until the position is quiet. The side to move may stand pat on the
+     * static evaluation instead of capturing - except in check, where every move is searched and no move is mate.
+     * Captures losing material by static exchange evaluation are not searched at all.
+     */
+    private int quiescence(int alpha, final int beta, final int ply) {
+        if((++this.nodes & CHECK_LIMITS_MASK) == 0) {
+            checkLimits();
+        }
+        if(this.stopped) {
+            return 0;
+        }
+        final MutableBoard board = this.board;
+        if(ply >= MAX_PLY - 1) {
+            return this.evaluator.evaluate(board);
+        }
+        final int us = board.getSideToMove();
+        final long checkers = board.getCheckers();
+        final boolean inCheck = checkers != 0;
+        final MovePicker movePicker = this.movePickers[ply];
+        int bestScore = -INFINITE_SCORE;
+        if(inCheck) {
+            movePicker.init(board, PackedMove.NONE, this.killerMoves[ply], this.history[us]);
+        } else {
+            bestScore = this.evaluator.evaluate(board);
+            if(bestScore >= beta) {
+                return bestScore;
+            }
+            if(bestScore > alpha) {
+                alpha = bestScore;
+            }
+            movePicker.initQuiescence(board);
+        }
+        int legalMoves = 0;
+        final long pinned = board.getPinnedPieces(us);
+        int move;
+        while((move = movePicker.next()) != PackedMove.NONE) {
+            if(!board.isLegal(move, checkers, pinned)) {
+                continue;
+            }
+            board.makeMove(move);
+            legalMoves++;
+            final int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if(this.stopped) {
+                return 0;
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                if(score > alpha) {
+                    alpha = score;
+                    if(alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if(inCheck && legalMoves == 0) {
+            return -MATE_SCORE + ply;
+        }
+        return bestScore;
+    }
+
+    private void updateQuietCutoff(final int move, final int side, final int depth, final int ply) {
+        final int[] killers = this.killerMoves[ply];
+        if(!PackedMove.isSameMove(killers[0], move)) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+        // Cutoffs high in the tree save much more work, hence depth squared.
+        final int[] sideHistory = this.history[side];
+        final int index = PackedMove.getFrom(move) << 6 | PackedMove.getTo(move);
+        sideHistory[index] += depth * depth;
+        if(sideHistory[index] > MAX_HISTORY_SCORE) {
+            for(int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Score as UCI writes it - "cp <centipawns>" or "mate <moves>", negative when the side to move gets mated.
+     * @param score search score, mate scores as MATE_SCORE - plies
+     * @return
+     */
+    public static String formatScore(final int score) {
+        if(Math.abs(score) >= MATE_THRESHOLD) {
+            final int moves = (MATE_SCORE - Math.abs(score) + 1) / 2;
+            return "mate " + (score > 0 ? moves : -moves);
+        }
+        return "cp " + score;
+    }
+
+    // Mate scores count plies from the root - the table stores them counted from the position itself instead,
+    // so they stay right when the position is reached again at another ply.
+    private static int scoreToTable(final int score, final int ply) {
+        if(score >= MATE_THRESHOLD) {
+            return score + ply;
+        }
+        if(score <= -MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(final int score, final int ply) {
+        if(score >= MATE_THRESHOLD) {
+            return score - ply;
+        }
+        if(score <= -MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void checkLimits() {
+        if(this.nodes >= this.nodeBudget || System.nanoTime() >= this.deadline) {
+            this.stopped = true;
+        }
+    }
+
+    // Insertion sort, stable - quiet moves keep the generation order.
+    private static void sortByMvvLva(final int[] moves, final int moveCount) {
+        for(int i = 1; i < moveCount; i++) {
+            final int move = moves[i];
+            final int score = MoveOrdering.mvvLva(move);
+            int j = i - 1;
+            while(j >= 0 && MoveOrdering.mvvLva(moves[j]) < score) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = move;
+        }
+    }
+
+    private static void moveToFront(final int[] moves, final int moveCount, final int move) {
+        for(int i = 0; i < moveCount; i++) {
+            if(PackedMove.isSameMove(moves[i], move)) {
+                final int generatedMove = moves[i]; // Keeps the piece bits, move may come without them.
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = generatedMove;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops a running search as soon as possible, search() / execute() then return the best move found so far.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    // Best move of the last search, PackedMove.NONE when there was no legal move.
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    // Score of the best move from the side to move point of view, in centipawns (pawn = 100).
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    // Deepest iteration which was searched completely.
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public long getNodesSearched() {
+        return this.nodes;
+    }
+
+    public BoardEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+}
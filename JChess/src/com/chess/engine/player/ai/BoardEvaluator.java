@@ -0,0 +1,18 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MutableBoard;
+
+/**
+ * Static evaluation - how good the position is without searching any further. Called at every leaf of the
+ * search, so it should be quick and allocate nothing. One instance is shared by all LazySmpSearch threads,
+ * so implementations have to be thread safe.
+ */
+public interface BoardEvaluator {
+
+    /**
+     * @param board
+     * @return score in centipawns (pawn = 100) from the side to move point of view, well below
+     *         AlphaBetaSearch.MATE_THRESHOLD in either direction
+     */
+    int evaluate(MutableBoard board);
+}
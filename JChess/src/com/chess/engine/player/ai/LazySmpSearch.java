@@ -0,0 +1,168 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PackedMove;
+
+/**
+ * Lazy SMP - N threads search the same root position at the same time, each on its own MutableBoard, and share
+ * nothing but the TranspositionTable. Helpers start at different depths, so they run ahead of the main thread and
+ * fill the table with results the main thread (and the other helpers) then cut off with.
+ *
+ * The main search runs on the calling thread and decides when to stop - time / node budgets are its budgets, the
+ * helpers are stopped as soon as it has returned. With one thread this is plain AlphaBetaSearch.
+ */
+public class LazySmpSearch implements MoveStrategy {
+
+    private final AlphaBetaSearch[] searches;
+    private final TranspositionTable transpositionTable;
+    private volatile boolean stopped;
+    private int bestScore;
+    private int completedDepth;
+
+    /**
+     * @param threadCount searching threads including the calling one
+     * @param maxDepth deepest iteration to search
+     * @param timeBudgetMillis time for one move, Long.MAX_VALUE for none
+     * @param nodeBudget nodes for one move of the main thread, Long.MAX_VALUE for none
+     * @param transpositionTable shared by all threads
+     * @param evaluator shared by all threads
+     */
+    public LazySmpSearch(final int threadCount,
+                         final int maxDepth,
+                         final long timeBudgetMillis,
+                         final long nodeBudget,
+                         final TranspositionTable transpositionTable,
+                         final BoardEvaluator evaluator) {
+        if(threadCount < 1) {
+            throw new RuntimeException("At least one search thread needed, not " + threadCount);
+        }
+        this.transpositionTable = transpositionTable;
+        this.searches = new AlphaBetaSearch[threadCount];
+        this.searches[0] = new AlphaBetaSearch(maxDepth, timeBudgetMillis, nodeBudget, transpositionTable, evaluator);
+        for(int i = 1; i < threadCount; i++) {
+            this.searches[i] = new AlphaBetaSearch(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE, transpositionTable, evaluator);
+        }
+    }
+
+    public LazySmpSearch(final int threadCount,
+                         final int maxDepth,
+                         final long timeBudgetMillis,
+                         final long nodeBudget,
+                         final TranspositionTable transpositionTable) {
+        this(threadCount, maxDepth, timeBudgetMillis, nodeBudget, transpositionTable, new StandardBoardEvaluator());
+    }
+
+    public LazySmpSearch(final int threadCount,
+                         final int maxDepth,
+                         final long timeBudgetMillis,
+                         final TranspositionTable transpositionTable) {
+        this(threadCount, maxDepth, timeBudgetMillis, Long.MAX_VALUE, transpositionTable);
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return AlphaBetaSearch.toMove(board, search(board));
+    }
+
+    /**
+     * Searches the board on all threads.
+     * @param board
+     * @return best move found, PackedMove.NONE when the side to move has no legal move
+     */
+    public int search(final Board board) {
+        return search(board, null);
+    }
+
+    /**
+     * Searches the board on all threads as a position of the game - lines repeating a game position are draws.
+     * @param board
+     * @param gameHistory positions of the game up to the board's one, null for none - every thread gets a copy
+     * @return best move found, PackedMove.NONE when the side to move has no legal move
+     */
+    public int search(final Board board, final GameHistory gameHistory) {
+        final MutableBoard mainBoard = MutableBoard.fromBoard(board);
+        this.stopped = false;
+        this.transpositionTable.newSearch();
+        final Thread[] helpers = new Thread[this.searches.length - 1];
+        for(int i = 0; i < this.searches.length; i++) {
+            this.searches[i].prepare(gameHistory);
+        }
+        for(int i = 0; i < helpers.length; i++) {
+            final AlphaBetaSearch helper = this.searches[i + 1];
+            final MutableBoard helperBoard = MutableBoard.fromBoard(board);
+            // Every other helper one depth ahead of the main thread.
+            final int startDepth = 1 + (i + 1) % 2;
+            helpers[i] = new Thread(() -> helper.search(helperBoard, startDepth), "lazy-smp-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        final AlphaBetaSearch mainSearch = this.searches[0];
+        if(this.stopped) {
+            mainSearch.stop();
+        }
+        int bestMove = mainSearch.search(mainBoard, 1);
+        this.bestScore = mainSearch.getBestScore();
+        this.completedDepth = mainSearch.getCompletedDepth();
+        for(int i = 1; i < this.searches.length; i++) {
+            this.searches[i].stop();
+        }
+        for(int i = 0; i < helpers.length; i++) {
+            joinHelper(helpers[i]);
+            // A helper which finished a deeper iteration than the main thread knows the better move.
+            final AlphaBetaSearch helper = this.searches[i + 1];
+            if(helper.getCompletedDepth() > this.completedDepth && helper.getBestMove() != PackedMove.NONE) {
+                bestMove = helper.getBestMove();
+                this.bestScore = helper.getBestScore();
+                this.completedDepth = helper.getCompletedDepth();
+            }
+        }
+        return bestMove;
+    }
+
+    private static void joinHelper(final Thread helper) {
+        try {
+            helper.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + helper.getName(), e);
+        }
+    }
+
+    /**
+     * Stops a running search as soon as possible, search() / execute() then return the best move found so far.
+     */
+    public void stop() {
+        this.stopped = true;
+        for(final AlphaBetaSearch search : this.searches) {
+            search.stop();
+        }
+    }
+
+    public int getThreadCount() {
+        return this.searches.length;
+    }
+
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    // Nodes of all threads together.
+    public long getNodesSearched() {
+        long nodes = 0;
+        for(final AlphaBetaSearch search : this.searches) {
+            nodes += search.getNodesSearched();
+        }
+        return nodes;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+}
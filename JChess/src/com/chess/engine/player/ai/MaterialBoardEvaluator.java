@@ -0,0 +1,15 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MutableBoard;
+
+/**
+ * Material balance only - the cheapest evaluation there is, for testing the search and for perft-like speed runs.
+ */
+public final class MaterialBoardEvaluator implements BoardEvaluator {
+
+    @Override
+    public int evaluate(final MutableBoard board) {
+        final int score = board.getMaterial(MutableBoard.WHITE) - board.getMaterial(MutableBoard.BLACK);
+        return board.getSideToMove() == MutableBoard.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * MVV-LVA (most valuable victim, least valuable attacker) - captures ranked by what they win first and by what
+ * they risk second, so PxQ comes before QxQ and QxQ before QxP. A capture that wins a lot is the move most likely
+ * to refute the opponent's last move, searching it first gives the earliest cutoffs.
+ *
+ * Scores are positive for captures and promotions and 0 for quiet moves.
+ */
+public final class MoveOrdering {
+
+    // Victim value counts 16 times, attacker value / 100 (pawn 1 ... king 100) only breaks ties between victims.
+    private static final int VICTIM_WEIGHT = 16;
+    private static final int ATTACKER_DIVISOR = 100;
+    // Indexed by MutableBoard piece type.
+    private static final int[] PIECE_VALUES = new int[MutableBoard.NUM_PIECE_TYPES];
+
+    static {
+        for(int type = 0; type < MutableBoard.NUM_PIECE_TYPES; type++) {
+            PIECE_VALUES[type] = Piece.PieceType.values()[type].getPieceValue();
+        }
+    }
+
+    private MoveOrdering() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    /**
+     * @param move generated by MutableBoard, so it carries the moved and captured piece types
+     * @return
+     */
+    public static int mvvLva(final int move) {
+        if(!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+            return 0;
+        }
+        int gain = 0;
+        if(PackedMove.isCapture(move)) {
+            gain += PIECE_VALUES[PackedMove.getCapturedPieceType(move)];
+        }
+        if(PackedMove.isPromotion(move)) {
+            gain += PIECE_VALUES[PackedMove.getPromotionType(move)] - PIECE_VALUES[MutableBoard.PAWN];
+        }
+        return score(gain, PIECE_VALUES[PackedMove.getMovedPieceType(move)]);
+    }
+
+    public static int mvvLva(final Move move) {
+        int gain = 0;
+        if(move.isAttack()) {
+            gain += move.getAttackedPiece().getPieceType().getPieceValue();
+        }
+        if(move instanceof Move.PawnPromotion) {
+            gain += ((Move.PawnPromotion) move).getPromotionType().getPieceValue() - Piece.PieceType.PAWN.getPieceValue();
+        }
+        return gain == 0 ? 0 : score(gain, move.getMovedPiece().getPieceType().getPieceValue());
+    }
+
+    // Piece value by MutableBoard piece type.
+    static int pieceValue(final int type) {
+        return PIECE_VALUES[type];
+    }
+
+    private static int score(final int gain, final int attackerValue) {
+        return gain * VICTIM_WEIGHT - attackerValue / ATTACKER_DIVISOR;
+    }
+
+    /**
+     * Sorts Board moves (e.g. Player.getLegalMoves() copied to a list) best capture first. Quiet moves keep
+     * their order at the end.
+     * @param moves
+     */
+    public static void sortByMvvLva(final List<Move> moves) {
+        moves.sort(Comparator.comparingInt((Move move) -> -mvvLva(move)));
+    }
+}
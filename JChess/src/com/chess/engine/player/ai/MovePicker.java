@@ -0,0 +1,190 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.PackedMove;
+
+/**
+ * Hands out the moves of one node best guess first, generating them in stages - work for the later stages is
+ * never done when an earlier move already causes a cutoff:
+ *  1. transposition table move
+ *  2. captures and promotions, by MVV-LVA - except those which lose material by static exchange evaluation
+ *  3. killer moves - quiet moves which caused a cutoff at the same ply in a sibling node
+ *  4. the other quiet moves, by history score
+ *  5. the losing captures
+ * In quiescence search only stage 2 is used and losing captures are dropped.
+ * Moves are pseudo legal, the caller checks that the own King is safe. One instance per ply, reused.
+ */
+final class MovePicker {
+
+    private static final int STAGE_TABLE_MOVE = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_CAPTURES = 2;
+    private static final int STAGE_KILLERS = 3;
+    private static final int STAGE_GENERATE_QUIETS = 4;
+    private static final int STAGE_QUIETS = 5;
+    private static final int STAGE_BAD_CAPTURES = 6;
+    private static final int STAGE_DONE = 7;
+
+    private final int[] moves = new int[AlphaBetaSearch.MAX_MOVES];
+    private final int[] scores = new int[AlphaBetaSearch.MAX_MOVES];
+    private final int[] badCaptures = new int[AlphaBetaSearch.MAX_MOVES];
+
+    private MutableBoard board;
+    private int[] history;
+    private int[] killers;
+    private int tableMove;
+    private int stage;
+    private int index;
+    private int count;
+    private int killerIndex;
+    private int firstKiller;
+    private int secondKiller;
+    private int badCaptureCount;
+    private int badCaptureIndex;
+    private boolean quiescence;
+
+    /**
+     * @param board
+     * @param tableMove PackedMove.NONE or a move which may or may not be valid here
+     * @param killers killer moves of the ply
+     * @param history history scores of the side to move, indexed by from * 64 + to
+     */
+    void init(final MutableBoard board, final int tableMove, final int[] killers, final int[] history) {
+        this.board = board;
+        this.tableMove = board.findPseudoLegalMove(tableMove);
+        this.killers = killers;
+        this.history = history;
+        this.stage = STAGE_TABLE_MOVE;
+        this.killerIndex = 0;
+        this.firstKiller = PackedMove.NONE;
+        this.secondKiller = PackedMove.NONE;
+        this.badCaptureCount = 0;
+        this.badCaptureIndex = 0;
+        this.quiescence = false;
+    }
+
+    /**
+     * Captures and promotions which do not lose material only, for quiescence search.
+     * @param board
+     */
+    void initQuiescence(final MutableBoard board) {
+        this.board = board;
+        this.tableMove = PackedMove.NONE;
+        this.stage = STAGE_GENERATE_CAPTURES;
+        this.badCaptureCount = 0;
+        this.badCaptureIndex = 0;
+        this.quiescence = true;
+    }
+
+    /**
+     * Every stage falls through to the next one once it has nothing more to hand out.
+     * @return next move, PackedMove.NONE when all were handed out
+     */
+    @SuppressWarnings("fallthrough")
+    int next() {
+        switch(this.stage) {
+            case STAGE_TABLE_MOVE:
+                this.stage = STAGE_GENERATE_CAPTURES;
+                if(this.tableMove != PackedMove.NONE) {
+                    return this.tableMove;
+                }
+                // Fall through.
+            case STAGE_GENERATE_CAPTURES:
+                this.count = this.board.generateCaptures(this.moves, 0);
+                for(int i = 0; i < this.count; i++) {
+                    this.scores[i] = MoveOrdering.mvvLva(this.moves[i]);
+                }
+                this.index = 0;
+                this.stage = STAGE_CAPTURES;
+                // Fall through.
+            case STAGE_CAPTURES:
+                while(this.index < this.count) {
+                    final int move = pickBest();
+                    if(PackedMove.isSameMove(move, this.tableMove)) {
+                        continue;
+                    }
+                    if(isLosingCapture(move)) {
+                        if(!this.quiescence) {
+                            this.badCaptures[this.badCaptureCount++] = move;
+                        }
+                        continue;
+                    }
+                    return move;
+                }
+                if(this.quiescence) {
+                    this.stage = STAGE_DONE;
+                    return PackedMove.NONE;
+                }
+                this.stage = STAGE_KILLERS;
+                // Fall through.
+            case STAGE_KILLERS:
+                while(this.killerIndex < this.killers.length) {
+                    final int move = this.board.findPseudoLegalMove(this.killers[this.killerIndex++]);
+                    // Killers of a sibling may be captures here, those were handed out already.
+                    if(move != PackedMove.NONE && !PackedMove.isCapture(move) && !PackedMove.isPromotion(move) &&
+                       !PackedMove.isSameMove(move, this.tableMove) && !PackedMove.isSameMove(move, this.firstKiller)) {
+                        if(this.firstKiller == PackedMove.NONE) {
+                            this.firstKiller = move;
+                        } else {
+                            this.secondKiller = move;
+                        }
+                        return move;
+                    }
+                }
+                this.stage = STAGE_GENERATE_QUIETS;
+                // Fall through.
+            case STAGE_GENERATE_QUIETS:
+                this.index = this.count;
+                this.count = this.board.generateQuietMoves(this.moves, this.count);
+                for(int i = this.index; i < this.count; i++) {
+                    this.scores[i] = this.history[PackedMove.getFrom(this.moves[i]) << 6 | PackedMove.getTo(this.moves[i])];
+                }
+                this.stage = STAGE_QUIETS;
+                // Fall through.
+            case STAGE_QUIETS:
+                while(this.index < this.count) {
+                    final int move = pickBest();
+                    if(!PackedMove.isSameMove(move, this.tableMove) && !PackedMove.isSameMove(move, this.firstKiller) &&
+                       !PackedMove.isSameMove(move, this.secondKiller)) {
+                        return move;
+                    }
+                }
+                this.stage = STAGE_BAD_CAPTURES;
+                // Fall through.
+            case STAGE_BAD_CAPTURES:
+                if(this.badCaptureIndex < this.badCaptureCount) {
+                    return this.badCaptures[this.badCaptureIndex++];
+                }
+                this.stage = STAGE_DONE;
+                return PackedMove.NONE;
+            default:
+                return PackedMove.NONE;
+        }
+    }
+
+    // Exchange evaluation is only needed when the piece moving is worth more than what it takes - PxN or RxR
+    // can not lose material.
+    private boolean isLosingCapture(final int move) {
+        final int captured = PackedMove.getCapturedPieceType(move);
+        final int victimValue = captured == MutableBoard.NO_PIECE ? 0 : MoveOrdering.pieceValue(captured);
+        return MoveOrdering.pieceValue(PackedMove.getMovedPieceType(move)) > victimValue &&
+               this.board.staticExchangeEvaluation(move) < 0;
+    }
+
+    // Selection sort step - swaps the best scored of the remaining moves to the front and hands it out. Cheaper than
+    // sorting the whole list, most nodes cut off after a few moves.
+    private int pickBest() {
+        int best = this.index;
+        for(int i = this.index + 1; i < this.count; i++) {
+            if(this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+        final int move = this.moves[best];
+        this.moves[best] = this.moves[this.index];
+        this.scores[best] = this.scores[this.index];
+        this.moves[this.index] = move;
+        this.index++;
+        return move;
+    }
+}
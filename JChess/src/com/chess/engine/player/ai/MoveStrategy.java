@@ -0,0 +1,16 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/**
+ * Chooses a move for the current player of the board.
+ */
+public interface MoveStrategy {
+
+    /**
+     * @param board
+     * @return chosen move, Move.NULL_MOVE when the current player has no legal move
+     */
+    Move execute(Board board);
+}
@@ -0,0 +1,97 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of pawn structure scores keyed by MutableBoard.getPawnKey(). Pawns move rarely compared to the other
+ * pieces, so sibling nodes (and most of a search tree) share a handful of pawn structures and nearly every
+ * evaluation finds its pawn score here.
+ *
+ * Fixed size, one entry per slot - a new structure simply evicts whatever was in its slot. Entries use the same
+ * lock free layout as TranspositionTable, (key XOR data) and data, so threads can share one table and a torn
+ * entry reads as a miss. Hit statistics are counted in LongAdders, so counting does not make threads contend.
+ */
+public final class PawnHashTable {
+
+    // Returned by probe() when the key is not in the table.
+    public static final long MISS = 0L;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    // Set in every stored data word, so an empty slot (all zero) never matches - not even pawn key 0.
+    private static final long VALID = 1L << 32;
+
+    private final long[] entries;
+    private final int indexMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param sizeMegabytes rounded down to a power of two number of entries
+     */
+    public PawnHashTable(final int sizeMegabytes) {
+        final long requestedEntries = Math.max(1L, (long) sizeMegabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        final int entryCount = (int) Math.min(Long.highestOneBit(requestedEntries), 1L << 29);
+        this.entries = new long[entryCount * 2];
+        this.indexMask = entryCount - 1;
+    }
+
+    private int index(final long pawnKey) {
+        return ((int) (pawnKey ^ (pawnKey >>> 32)) & this.indexMask) << 1;
+    }
+
+    /**
+     * @param pawnKey
+     * @return the entry, decode with getScore(), or MISS
+     */
+    public long probe(final long pawnKey) {
+        this.probes.increment();
+        final int index = index(pawnKey);
+        final long data = this.entries[index + 1];
+        if((data & VALID) == 0 || (this.entries[index] ^ data) != pawnKey) {
+            return MISS;
+        }
+        this.hits.increment();
+        return data;
+    }
+
+    // Packed score of an entry (see StandardBoardEvaluator.score()).
+    public static int getScore(final long entry) {
+        return (int) entry;
+    }
+
+    public void store(final long pawnKey, final int packedScore) {
+        final int index = index(pawnKey);
+        final long data = VALID | (packedScore & 0xFFFFFFFFL);
+        this.entries[index] = pawnKey ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        this.probes.reset();
+        this.hits.reset();
+    }
+
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    // Share of probes answered from the table, 0 - 1.
+    public double getHitRate() {
+        final long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+    public int getEntryCount() {
+        return this.indexMask + 1;
+    }
+}
@@ -0,0 +1,251 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.AttackTables;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.SlidingAttacks;
+
+/**
+ * Material, piece-square tables, mobility, king safety and pawn structure.
+ *
+ * Every term has a middlegame and an endgame value, the result blends the two by the pieces left on the board
+ * (tapered evaluation), so e.g. the King is kept safe while queens are around and walks to the centre later.
+ * Material and piece-square tables come from the running sums of MutableBoard, nothing is counted here for them.
+ * Mobility and king safety need the attack sets of all pieces, those are looked up in AttackTables / SlidingAttacks.
+ * Pawn structure depends on the pawns alone and is cached in a PawnHashTable by pawn key.
+ *
+ * Thread safe, one instance can serve any number of threads (they share the pawn hash table).
+ */
+public final class StandardBoardEvaluator implements BoardEvaluator {
+
+    private static final int DEFAULT_PAWN_HASH_MEGABYTES = 1;
+
+    // Game phase - knights / bishops count 1, rooks 2, queens 4, all pieces on the board make 24.
+    private static final int MAX_PHASE = 24;
+    // Indexed by MutableBoard piece type (BISHOP, KING, KNIGHT, PAWN, QUEEN, ROOK).
+    private static final int[] PHASE_WEIGHTS = {1, 0, 1, 0, 4, 2};
+    // Bonus per reachable tile not attacked by enemy pawns.
+    private static final int[] MOBILITY_MIDDLEGAME = {5, 0, 4, 0, 1, 2};
+    private static final int[] MOBILITY_ENDGAME = {5, 0, 4, 0, 2, 4};
+    // Attack units per tile next to the enemy King a piece attacks.
+    private static final int[] KING_ATTACK_WEIGHTS = {2, 0, 2, 0, 5, 3};
+    private static final int MAX_KING_ATTACK_BONUS = 500;
+    private static final int SHIELD_PAWN_BONUS = 15;
+    private static final int ADVANCED_SHIELD_PAWN_BONUS = 8;
+    private static final int BISHOP_PAIR_MIDDLEGAME = 30;
+    private static final int BISHOP_PAIR_ENDGAME = 50;
+
+    private static final int DOUBLED_PAWN_MIDDLEGAME = -10;
+    private static final int DOUBLED_PAWN_ENDGAME = -20;
+    private static final int ISOLATED_PAWN_MIDDLEGAME = -10;
+    private static final int ISOLATED_PAWN_ENDGAME = -15;
+    // Indexed by rows the pawn has advanced from its own first row.
+    private static final int[] PASSED_PAWN_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_PAWN_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = 0x8080808080808080L;
+    private static final long[] FILES = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[] ADJACENT_FILES = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[] ROWS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    // Tiles an enemy pawn must not stand on for a pawn of the side on the tile to be passed.
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][BoardUtils.NUM_TILES];
+
+    static {
+        for(int i = 0; i < BoardUtils.NUM_TILES_PER_ROW; i++) {
+            FILES[i] = FILE_A << i;
+            ROWS[i] = 0xFFL << (i * BoardUtils.NUM_TILES_PER_ROW);
+        }
+        for(int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < BoardUtils.NUM_TILES_PER_ROW - 1 ? FILES[file + 1] : 0L);
+        }
+        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final long files = FILES[tile % BoardUtils.NUM_TILES_PER_ROW] | ADJACENT_FILES[tile % BoardUtils.NUM_TILES_PER_ROW];
+            for(int otherRow = 0; otherRow < BoardUtils.NUM_TILES_PER_ROW; otherRow++) {
+                // White pawns run towards row 0, Black pawns towards row 7.
+                if(otherRow < row) {
+                    PASSED_PAWN_MASKS[MutableBoard.WHITE][tile] |= files & ROWS[otherRow];
+                } else if(otherRow > row) {
+                    PASSED_PAWN_MASKS[MutableBoard.BLACK][tile] |= files & ROWS[otherRow];
+                }
+            }
+        }
+    }
+
+    private final PawnHashTable pawnHashTable;
+
+    public StandardBoardEvaluator(final PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    public StandardBoardEvaluator() {
+        this(new PawnHashTable(DEFAULT_PAWN_HASH_MEGABYTES));
+    }
+
+    @Override
+    public int evaluate(final MutableBoard board) {
+        final int material = board.getMaterial(MutableBoard.WHITE) - board.getMaterial(MutableBoard.BLACK);
+        int middlegame = material + board.getMiddlegamePositionScore();
+        int endgame = material + board.getEndgamePositionScore();
+
+        final long pawnEntry = this.pawnHashTable.probe(board.getPawnKey());
+        final int pawnScore;
+        if(pawnEntry != PawnHashTable.MISS) {
+            pawnScore = PawnHashTable.getScore(pawnEntry);
+        } else {
+            pawnScore = evaluatePawns(board.getPieces(MutableBoard.WHITE, MutableBoard.PAWN),
+                                      board.getPieces(MutableBoard.BLACK, MutableBoard.PAWN));
+            this.pawnHashTable.store(board.getPawnKey(), pawnScore);
+        }
+        final int whitePieces = evaluatePieces(board, MutableBoard.WHITE);
+        final int blackPieces = evaluatePieces(board, MutableBoard.BLACK);
+        middlegame += middlegame(pawnScore) + middlegame(whitePieces) - middlegame(blackPieces);
+        endgame += endgame(pawnScore) + endgame(whitePieces) - endgame(blackPieces);
+
+        int phase = 0;
+        for(int type = 0; type < MutableBoard.NUM_PIECE_TYPES; type++) {
+            phase += PHASE_WEIGHTS[type] * Long.bitCount(board.getPieces(MutableBoard.WHITE, type) | board.getPieces(MutableBoard.BLACK, type));
+        }
+        phase = Math.min(phase, MAX_PHASE); // Promotions can add pieces.
+        final int score = (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return board.getSideToMove() == MutableBoard.WHITE ? score : -score;
+    }
+
+    public PawnHashTable getPawnHashTable() {
+        return this.pawnHashTable;
+    }
+
+    // Middlegame and endgame value in one int - endgame in the upper 16 bits, middlegame (signed) in the lower.
+    static int score(final int middlegame, final int endgame) {
+        return (endgame << 16) + middlegame;
+    }
+
+    static int middlegame(final int score) {
+        return (short) score;
+    }
+
+    static int endgame(final int score) {
+        return (score + 0x8000) >> 16;
+    }
+
+    /**
+     * Mobility, bishop pair and king safety of one side.
+     * @param board
+     * @param side
+     * @return packed score (see score()) from the side's point of view
+     */
+    private static int evaluatePieces(final MutableBoard board, final int side) {
+        final int them = side ^ 1;
+        final long occupancy = board.getOccupancy();
+        final long theirPawns = board.getPieces(them, MutableBoard.PAWN);
+        final long theirPawnAttacks = side == MutableBoard.WHITE ?
+                ((theirPawns & ~FILE_A) << 7) | ((theirPawns & ~FILE_H) << 9) :
+                ((theirPawns & ~FILE_A) >>> 9) | ((theirPawns & ~FILE_H) >>> 7);
+        final long mobilityArea = ~board.getOccupancy(side) & ~theirPawnAttacks;
+        final int theirKing = board.getKingSquare(them);
+        final long kingZone = AttackTables.kingAttacks(theirKing) | (1L << theirKing);
+
+        int middlegame = 0;
+        int endgame = 0;
+        int kingAttackers = 0;
+        int kingAttackUnits = 0;
+        for(int type = 0; type < MutableBoard.NUM_PIECE_TYPES; type++) {
+            if(type == MutableBoard.KING || type == MutableBoard.PAWN) {
+                continue;
+            }
+            for(long pieces = board.getPieces(side, type); pieces != 0; pieces &= pieces - 1) {
+                final int tile = Long.numberOfTrailingZeros(pieces);
+                final long attacks = attacks(type, tile, occupancy);
+                final int mobility = Long.bitCount(attacks & mobilityArea);
+                middlegame += MOBILITY_MIDDLEGAME[type] * mobility;
+                endgame += MOBILITY_ENDGAME[type] * mobility;
+                final long kingAttacks = attacks & kingZone;
+                if(kingAttacks != 0) {
+                    kingAttackers++;
+                    kingAttackUnits += KING_ATTACK_WEIGHTS[type] * Long.bitCount(kingAttacks);
+                }
+            }
+        }
+        if(Long.bitCount(board.getPieces(side, MutableBoard.BISHOP)) >= 2) {
+            middlegame += BISHOP_PAIR_MIDDLEGAME;
+            endgame += BISHOP_PAIR_ENDGAME;
+        }
+        // A single attacker is rarely dangerous, several grow fast - hence the square. Matters in the middlegame only.
+        if(kingAttackers >= 2) {
+            middlegame += Math.min(MAX_KING_ATTACK_BONUS, kingAttackUnits * kingAttackUnits / 4);
+        }
+        middlegame += pawnShield(board, side);
+        return score(middlegame, endgame);
+    }
+
+    private static long attacks(final int type, final int tile, final long occupancy) {
+        switch(type) {
+            case MutableBoard.KNIGHT: return AttackTables.knightAttacks(tile);
+            case MutableBoard.BISHOP: return SlidingAttacks.bishopAttacks(tile, occupancy);
+            case MutableBoard.ROOK: return SlidingAttacks.rookAttacks(tile, occupancy);
+            default: return SlidingAttacks.queenAttacks(tile, occupancy);
+        }
+    }
+
+    // Own pawns right in front of a King on its first two rows - one row ahead counts more than two.
+    private static int pawnShield(final MutableBoard board, final int side) {
+        final int king = board.getKingSquare(side);
+        final int row = king / BoardUtils.NUM_TILES_PER_ROW;
+        final long pawns = board.getPieces(side, MutableBoard.PAWN);
+        final long shield;
+        final long advancedShield;
+        if(side == MutableBoard.WHITE) {
+            if(row < 6) {
+                return 0;
+            }
+            shield = AttackTables.kingAttacks(king) & ROWS[row - 1];
+            advancedShield = shield >>> BoardUtils.NUM_TILES_PER_ROW;
+        } else {
+            if(row > 1) {
+                return 0;
+            }
+            shield = AttackTables.kingAttacks(king) & ROWS[row + 1];
+            advancedShield = shield << BoardUtils.NUM_TILES_PER_ROW;
+        }
+        return SHIELD_PAWN_BONUS * Long.bitCount(pawns & shield) + ADVANCED_SHIELD_PAWN_BONUS * Long.bitCount(pawns & advancedShield);
+    }
+
+    /**
+     * Doubled, isolated and passed pawns - depends on the pawns only.
+     * @param whitePawns
+     * @param blackPawns
+     * @return packed score (see score()), White minus Black
+     */
+    static int evaluatePawns(final long whitePawns, final long blackPawns) {
+        final int white = evaluatePawns(whitePawns, blackPawns, MutableBoard.WHITE);
+        final int black = evaluatePawns(blackPawns, whitePawns, MutableBoard.BLACK);
+        return score(middlegame(white) - middlegame(black), endgame(white) - endgame(black));
+    }
+
+    private static int evaluatePawns(final long pawns, final long theirPawns, final int side) {
+        int middlegame = 0;
+        int endgame = 0;
+        for(int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            final int count = Long.bitCount(pawns & FILES[file]);
+            if(count > 1) {
+                middlegame += DOUBLED_PAWN_MIDDLEGAME * (count - 1);
+                endgame += DOUBLED_PAWN_ENDGAME * (count - 1);
+            }
+            if(count > 0 && (pawns & ADJACENT_FILES[file]) == 0) {
+                middlegame += ISOLATED_PAWN_MIDDLEGAME * count;
+                endgame += ISOLATED_PAWN_ENDGAME * count;
+            }
+        }
+        for(long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+            final int tile = Long.numberOfTrailingZeros(remaining);
+            if((theirPawns & PASSED_PAWN_MASKS[side][tile]) == 0) {
+                final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+                final int advanced = side == MutableBoard.WHITE ? BoardUtils.NUM_TILES_PER_ROW - 1 - row : row;
+                middlegame += PASSED_PAWN_MIDDLEGAME[advanced];
+                endgame += PASSED_PAWN_ENDGAME[advanced];
+            }
+        }
+        return score(middlegame, endgame);
+    }
+}
@@ -0,0 +1,156 @@
+package com.chess.engine.player.ai;
+
+/**
+ * Fixed size hash table of search results, keyed by Zobrist key. Shared by all search threads without any locks.
+ *
+ * Every entry is two longs in one long[] - (key XOR data) and data. Data packs:
+ *  0 - 15  best move (PackedMove)
+ *  16 - 47 score
+ *  48 - 55 depth
+ *  56 - 57 bound type
+ *  58 - 63 search generation (age)
+ * Two threads may write the same entry at once, or a reader may see one long of an old and one of a new entry.
+ * Then (key XOR data) XOR data no longer gives the key back, so the torn entry is simply treated as a miss.
+ */
+public final class TranspositionTable {
+
+    // Bound types - score is exact, or at least / at most the stored value (search was cut off by beta / alpha).
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // Returned by probe() when there is no entry for the key - real entries always have a bound type, so never 0.
+    public static final long MISS = 0L;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int GENERATION_MASK = 0x3F;
+
+    /**
+     * Which entry stays when two positions map to the same slot.
+     */
+    public enum ReplacementPolicy {
+        // Newest result always wins.
+        ALWAYS_REPLACE,
+        // Deeper (more expensive) results are kept, unless they are left over from an earlier search.
+        DEPTH_PREFERRED
+    }
+
+    private final long[] entries;
+    private final int indexMask;
+    private final ReplacementPolicy replacementPolicy;
+    private volatile int generation;
+
+    /**
+     * @param sizeMegabytes rounded down to a power of two number of entries
+     * @param replacementPolicy
+     */
+    public TranspositionTable(final int sizeMegabytes,
+                              final ReplacementPolicy replacementPolicy) {
+        final long requestedEntries = Math.max(1L, (long) sizeMegabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        // Largest power of two that fits, capped so the long[] (two longs per entry) stays a legal array size.
+        final int entryCount = (int) Math.min(Long.highestOneBit(requestedEntries), 1L << 29);
+        this.entries = new long[entryCount * 2];
+        this.indexMask = entryCount - 1;
+        this.replacementPolicy = replacementPolicy;
+    }
+
+    public TranspositionTable(final int sizeMegabytes) {
+        this(sizeMegabytes, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    /**
+     * @param key Zobrist key
+     * @return packed entry data (see getMove / getScore / getDepth / getBound) or MISS
+     */
+    public long probe(final long key) {
+        final int index = slot(key);
+        final long data = this.entries[index + 1];
+        if((this.entries[index] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Stores a search result - may be ignored depending on the replacement policy.
+     * @param key Zobrist key
+     * @param move best move (only the low 16 bits are kept), PackedMove.NONE when unknown
+     * @param score
+     * @param depth remaining search depth the score was found with
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final int index = slot(key);
+        final int currentGeneration = this.generation;
+        if(this.replacementPolicy == ReplacementPolicy.DEPTH_PREFERRED) {
+            final long oldData = this.entries[index + 1];
+            final long oldKey = this.entries[index] ^ oldData;
+            if(oldData != MISS && getGeneration(oldData) == currentGeneration && depth < getDepth(oldData) && oldKey != key) {
+                return; // Deeper result of this search for another position - more valuable than this one.
+            }
+        }
+        final long data = (move & 0xFFFFL) |
+                          ((score & 0xFFFFFFFFL) << 16) |
+                          ((long) (depth & 0xFF) << 48) |
+                          ((long) bound << 56) |
+                          ((long) currentGeneration << 58);
+        this.entries[index] = key ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    private int slot(final long key) {
+        // Upper bits for the index - the low bits are what Long.hashCode / other tables tend to use already.
+        return ((int) (key >>> 32) & this.indexMask) << 1;
+    }
+
+    /**
+     * Marks the start of a new search, entries from earlier searches become replaceable.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(this.entries, 0L);
+    }
+
+    /**
+     * Permille of sampled entries written by the current search (UCI "hashfull").
+     * @return
+     */
+    public int getHashFull() {
+        final int samples = Math.min(1000, this.entries.length / 2);
+        int used = 0;
+        for(int i = 0; i < samples; i++) {
+            final long data = this.entries[i * 2 + 1];
+            if(data != MISS && getGeneration(data) == this.generation) {
+                used++;
+            }
+        }
+        return used * 1000 / samples;
+    }
+
+    public int getEntryCount() {
+        return this.entries.length / 2;
+    }
+
+    public static int getMove(final long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int getScore(final long entry) {
+        return (int) (entry >>> 16);
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) ((entry >>> 48) & 0xFF);
+    }
+
+    public static int getBound(final long entry) {
+        return (int) ((entry >>> 56) & 0x3);
+    }
+
+    private static int getGeneration(final long entry) {
+        return (int) ((entry >>> 58) & GENERATION_MASK);
+    }
+}
@@ -0,0 +1,121 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Streams FEN / EPD positions from a file, one per line, and hands every Board to a consumer as soon as it is
+ * parsed. Memory stays bounded whatever the file size - one read buffer and one line buffer, both reused for
+ * every line, and no Board is kept after the consumer returns.
+ *
+ * Empty lines and lines starting with '#' are skipped. A malformed line ends the load, unless an error handler is
+ * given - then it gets the line and the load goes on. Not thread safe - one loader per thread.
+ */
+public final class FenFileLoader {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private final ByteBuffer readBuffer;
+    private final char[] lineBuffer = new char[MAX_LINE_LENGTH];
+    private final CharBuffer line = CharBuffer.wrap(this.lineBuffer);
+    private long lineNumber;
+    private BiConsumer<String, RuntimeException> errorHandler;
+
+    public FenFileLoader(final int bufferSize) {
+        this.readBuffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    public FenFileLoader() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Parses every position in the file.
+     * @param file
+     * @param consumer called with each Board, in file order
+     * @return number of positions loaded
+     * @throws IOException
+     */
+    public long load(final Path file, final Consumer<Board> consumer) throws IOException {
+        return load(file, consumer, null);
+    }
+
+    /**
+     * Parses every position in the file, handing malformed lines to the error handler instead of failing.
+     * @param file
+     * @param consumer called with each Board, in file order
+     * @param errorHandler called with the text of each malformed line and the parse error (its message names the
+     *                     line number), in file order with the positions - null to fail on the first one
+     * @return number of positions loaded
+     * @throws IOException
+     */
+    public long load(final Path file,
+                     final Consumer<Board> consumer,
+                     final BiConsumer<String, RuntimeException> errorHandler) throws IOException {
+        this.errorHandler = errorHandler;
+        long positions = 0;
+        this.lineNumber = 0;
+        int lineLength = 0;
+        try(final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.readBuffer.clear();
+            while(channel.read(this.readBuffer) != -1) {
+                this.readBuffer.flip();
+                while(this.readBuffer.hasRemaining()) {
+                    // FEN is plain ASCII, so every byte is one character.
+                    final char character = (char) (this.readBuffer.get() & 0xFF);
+                    if(character == '\n') {
+                        positions += parseLine(lineLength, consumer);
+                        lineLength = 0;
+                    } else if(character != '\r') {
+                        if(lineLength == MAX_LINE_LENGTH) {
+                            throw new RuntimeException(file + ":" + (this.lineNumber + 1) + " is longer than " + MAX_LINE_LENGTH + " characters");
+                        }
+                        this.lineBuffer[lineLength++] = character;
+                    }
+                }
+                this.readBuffer.clear();
+            }
+        }
+        // Last line without a line break.
+        return positions + parseLine(lineLength, consumer);
+    }
+
+    private int parseLine(final int lineLength, final Consumer<Board> consumer) {
+        this.lineNumber++;
+        int start = 0;
+        while(start < lineLength && Character.isWhitespace(this.lineBuffer[start])) {
+            start++;
+        }
+        if(start == lineLength || this.lineBuffer[start] == '#') {
+            return 0;
+        }
+        this.line.limit(lineLength).position(0);
+        final Board board;
+        try {
+            board = FenUtilities.createGameFromFEN(this.line);
+        } catch (final RuntimeException e) {
+            final RuntimeException error = new RuntimeException("Line " + this.lineNumber + ": " + e.getMessage(), e);
+            if(this.errorHandler == null) {
+                throw error;
+            }
+            this.errorHandler.accept(new String(this.lineBuffer, start, lineLength - start).trim(), error);
+            return 0;
+        }
+        consumer.accept(board);
+        return 1;
+    }
+
+    // Line of the last position handed to the consumer (1 based) - for error reports from the consumer.
+    public long getLineNumber() {
+        return this.lineNumber;
+    }
+}
@@ -0,0 +1,248 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.Tile;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * Forsyth-Edwards Notation - one line text form of a position, e.g. the starting position:
+ *  rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1
+ * Pieces row by row from a8 (same order as Board tiles), side to move, castling rights, en passant tile,
+ * halfmove clock and fullmove number. The two counters may be missing (EPD style), they default to 0 and 1.
+ */
+public final class FenUtilities {
+
+    private static final String PIECE_CHARACTERS = "bknpqr"; // Same order as Piece.PieceType.
+
+    private FenUtilities() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static Board createGameFromFEN(final String fenString) {
+        return createGameFromFEN((CharSequence) fenString);
+    }
+
+    /**
+     * Parses the position straight from the characters, so callers can reuse one buffer for many lines
+     * (see FenFileLoader). Anything after the six fields (EPD operations) is ignored.
+     * @param fen
+     * @return
+     */
+    public static Board createGameFromFEN(final CharSequence fen) {
+        final Board.Builder builder = new Board.Builder();
+        final Piece[] pieces = new Piece[BoardUtils.NUM_TILES];
+        int index = skipSpaces(fen, 0);
+        int tile = 0;
+        // Field 1 - piece placement.
+        while(index < fen.length() && fen.charAt(index) != ' ') {
+            final char character = fen.charAt(index++);
+            if(character == '/') {
+                if(tile % BoardUtils.NUM_TILES_PER_ROW != 0) {
+                    throw invalid(fen, "row " + (tile / BoardUtils.NUM_TILES_PER_ROW + 1) + " is not complete");
+                }
+            } else if(character >= '1' && character <= '8') {
+                tile += character - '0';
+            } else {
+                final int type = PIECE_CHARACTERS.indexOf(Character.toLowerCase(character));
+                if(type < 0 || tile >= BoardUtils.NUM_TILES) {
+                    throw invalid(fen, "unexpected '" + character + "' in piece placement");
+                }
+                final Alliance alliance = Character.isUpperCase(character) ? Alliance.WHITE : Alliance.BLACK;
+                // Unmoved for now - corrected below once castling rights are known.
+                pieces[tile] = Piece.PieceType.values()[type].createPiece(tile, alliance, true);
+                tile++;
+            }
+        }
+        if(tile != BoardUtils.NUM_TILES) {
+            throw invalid(fen, "piece placement covers " + tile + " tiles");
+        }
+        // Field 2 - side to move.
+        index = skipSpaces(fen, index);
+        if(index >= fen.length() || (fen.charAt(index) != 'w' && fen.charAt(index) != 'b')) {
+            throw invalid(fen, "side to move must be 'w' or 'b'");
+        }
+        final Alliance nextMoveMaker = fen.charAt(index++) == 'w' ? Alliance.WHITE : Alliance.BLACK;
+        builder.setMoveMaker(nextMoveMaker);
+        // Field 3 - castling rights.
+        index = skipSpaces(fen, index);
+        int castlingRights = 0;
+        while(index < fen.length() && fen.charAt(index) != ' ') {
+            switch(fen.charAt(index++)) {
+                case 'K': castlingRights |= MutableBoard.WHITE_KING_SIDE; break;
+                case 'Q': castlingRights |= MutableBoard.WHITE_QUEEN_SIDE; break;
+                case 'k': castlingRights |= MutableBoard.BLACK_KING_SIDE; break;
+                case 'q': castlingRights |= MutableBoard.BLACK_QUEEN_SIDE; break;
+                case '-': break;
+                default: throw invalid(fen, "unexpected castling rights");
+            }
+        }
+        // Field 4 - en passant tile, the pawn which jumped over it stands one row further.
+        index = skipSpaces(fen, index);
+        int enPassantTile = MutableBoard.NO_SQUARE;
+        if(index < fen.length() && fen.charAt(index) != '-') {
+            if(index + 1 >= fen.length()) {
+                throw invalid(fen, "en passant tile is not complete");
+            }
+            enPassantTile = BoardUtils.getCoordinateAtPosition(fen.subSequence(index, index + 2).toString());
+            if(enPassantTile < 0) {
+                throw invalid(fen, "unknown en passant tile");
+            }
+        }
+        while(index < fen.length() && fen.charAt(index) != ' ') {
+            index++;
+        }
+        // Fields 5 and 6 - move counters, optional.
+        index = skipSpaces(fen, index);
+        final int halfmoveEnd = skipDigits(fen, index);
+        if(halfmoveEnd > index) {
+            builder.setHalfmoveClock(parseInt(fen, index, halfmoveEnd));
+            index = skipSpaces(fen, halfmoveEnd);
+            final int fullmoveEnd = skipDigits(fen, index);
+            if(fullmoveEnd > index) {
+                builder.setFullmoveNumber(Math.max(1, parseInt(fen, index, fullmoveEnd)));
+            }
+        }
+
+        return buildBoard(builder, pieces, nextMoveMaker, castlingRights, enPassantTile);
+    }
+
+    /**
+     * Puts the pieces on the builder (fixing their first move flags) and the en passant pawn, then builds.
+     * Shared with PackedPosition.
+     * @param builder with move maker and counters already set
+     * @param pieces by tile, null for empty tiles
+     * @param nextMoveMaker
+     * @param castlingRights MutableBoard.WHITE_KING_SIDE etc.
+     * @param enPassantTile tile the pawn jumped over or MutableBoard.NO_SQUARE
+     * @return
+     */
+    static Board buildBoard(final Board.Builder builder,
+                            final Piece[] pieces,
+                            final Alliance nextMoveMaker,
+                            final int castlingRights,
+                            final int enPassantTile) {
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            if(pieces[i] != null) {
+                builder.setPiece(withFirstMoveFlag(pieces[i], castlingRights));
+            }
+        }
+        if(enPassantTile != MutableBoard.NO_SQUARE) {
+            // White to move - Black pawn jumped, it stands below the tile it jumped over (towards row 8).
+            final int pawnTile = nextMoveMaker.isWhite() ? enPassantTile + BoardUtils.NUM_TILES_PER_ROW : enPassantTile - BoardUtils.NUM_TILES_PER_ROW;
+            final Piece pawn = pawnTile >= 0 && pawnTile < BoardUtils.NUM_TILES ? pieces[pawnTile] : null;
+            if(pawn instanceof Pawn && pawn.getPieceAlliance() != nextMoveMaker) {
+                builder.setEnPassantPawn((Pawn) withFirstMoveFlag(pawn, castlingRights));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Board keeps castling rights as first move flags of King and Rooks, and the pawn jump needs the flag too.
+     * Same rules as MutableBoard.toBoard().
+     */
+    private static Piece withFirstMoveFlag(final Piece piece, final int castlingRights) {
+        final int tile = piece.getPiecePosition();
+        final boolean white = piece.getPieceAlliance().isWhite();
+        final boolean isFirstMove;
+        switch(piece.getPieceType()) {
+            case PAWN:
+                isFirstMove = white ? BoardUtils.SEVENTH_ROW[tile] : BoardUtils.SECOND_ROW[tile];
+                break;
+            case KING:
+                isFirstMove = tile == (white ? 60 : 4) &&
+                        (castlingRights & (white ? MutableBoard.WHITE_KING_SIDE | MutableBoard.WHITE_QUEEN_SIDE :
+                                                   MutableBoard.BLACK_KING_SIDE | MutableBoard.BLACK_QUEEN_SIDE)) != 0;
+                break;
+            case ROOK:
+                isFirstMove = (tile == 63 && white && (castlingRights & MutableBoard.WHITE_KING_SIDE) != 0) ||
+                              (tile == 56 && white && (castlingRights & MutableBoard.WHITE_QUEEN_SIDE) != 0) ||
+                              (tile == 7 && !white && (castlingRights & MutableBoard.BLACK_KING_SIDE) != 0) ||
+                              (tile == 0 && !white && (castlingRights & MutableBoard.BLACK_QUEEN_SIDE) != 0);
+                break;
+            default:
+                isFirstMove = false;
+        }
+        return isFirstMove == piece.isFirstMove() ? piece : piece.getPieceType().createPiece(tile, piece.getPieceAlliance(), isFirstMove);
+    }
+
+    /**
+     * Writes the board as FEN with all six fields.
+     * @param board
+     * @return
+     */
+    public static String createFENFromGame(final Board board) {
+        final StringBuilder builder = new StringBuilder(90);
+        for(int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++) {
+            if(row > 0) {
+                builder.append('/');
+            }
+            int emptyTiles = 0;
+            for(int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++) {
+                final Tile tile = board.getTile(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                if(!tile.isTileOccupied()) {
+                    emptyTiles++;
+                    continue;
+                }
+                if(emptyTiles > 0) {
+                    builder.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                builder.append(tile.toString());
+            }
+            if(emptyTiles > 0) {
+                builder.append(emptyTiles);
+            }
+        }
+        builder.append(board.getCurrentPlayer().getAlliance().isWhite() ? " w " : " b ");
+        final int castlingRights = board.getCastlingRights();
+        if(castlingRights == 0) {
+            builder.append('-');
+        } else {
+            if((castlingRights & MutableBoard.WHITE_KING_SIDE) != 0) builder.append('K');
+            if((castlingRights & MutableBoard.WHITE_QUEEN_SIDE) != 0) builder.append('Q');
+            if((castlingRights & MutableBoard.BLACK_KING_SIDE) != 0) builder.append('k');
+            if((castlingRights & MutableBoard.BLACK_QUEEN_SIDE) != 0) builder.append('q');
+        }
+        builder.append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if(enPassantPawn == null) {
+            builder.append('-');
+        } else {
+            builder.append(BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() -
+                    enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW));
+        }
+        return builder.append(' ').append(board.getHalfmoveClock())
+                      .append(' ').append(board.getFullmoveNumber()).toString();
+    }
+
+    private static int skipSpaces(final CharSequence text, int index) {
+        while(index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipDigits(final CharSequence text, int index) {
+        while(index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int parseInt(final CharSequence text, final int start, final int end) {
+        int value = 0;
+        for(int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static RuntimeException invalid(final CharSequence fen, final String reason) {
+        return new RuntimeException("Invalid FEN '" + fen + "': " + reason);
+    }
+}
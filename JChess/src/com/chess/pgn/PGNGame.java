@@ -0,0 +1,74 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game read from a PGN file - tag pairs, the moves and the position before and after every move.
+ * When the movetext could not be replayed, the game holds the moves up to the bad one and getParseError()
+ * says what went wrong.
+ */
+public final class PGNGame {
+
+    private final Map<String, String> tags;
+    private final List<Move> moves;
+    private final List<Board> positions;
+    private final String result;
+    private final String parseError;
+
+    PGNGame(final Map<String, String> tags,
+            final List<Move> moves,
+            final List<Board> positions,
+            final String result,
+            final String parseError) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.positions = Collections.unmodifiableList(positions);
+        this.result = result;
+        this.parseError = parseError;
+    }
+
+    // Tag pairs in file order, e.g. "White" -> "Carlsen, Magnus".
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public List<Move> getMoves() {
+        return this.moves;
+    }
+
+    // Starting position first, then the position after each move - one more than getMoves().
+    public List<Board> getPositions() {
+        return this.positions;
+    }
+
+    public Board getFinalPosition() {
+        return this.positions.get(this.positions.size() - 1);
+    }
+
+    // "1-0", "0-1", "1/2-1/2" or "*" - from the movetext, the Result tag if the movetext has none.
+    public String getResult() {
+        return this.result;
+    }
+
+    public boolean isValid() {
+        return this.parseError == null;
+    }
+
+    public String getParseError() {
+        return this.parseError;
+    }
+
+    @Override
+    public String toString() {
+        return getTag("White") + " - " + getTag("Black") + " " + this.result + " (" + this.moves.size() + " moves)";
+    }
+}
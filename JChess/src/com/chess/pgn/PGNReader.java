@@ -0,0 +1,156 @@
+package com.chess.pgn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads a PGN file of any size and replays its games in parallel.
+ *
+ * The calling thread only splits the text into games and groups them into chunks. A game ends at its result token
+ * or, without one, at the next tag section. Every chunk is parsed as one task on the fork-join pool (replaying the
+ * SAN moves is where the time goes). Finished chunks are handed to the sink in file order by the calling thread,
+ * so the sink needs no synchronization. At most two chunks per pool thread are in flight - reading waits for the
+ * oldest one when the window is full, which bounds memory however big the file is.
+ *
+ * Not thread safe - one read() at a time per reader.
+ */
+public final class PGNReader {
+
+    private static final int DEFAULT_GAMES_PER_CHUNK = 64;
+
+    private final ForkJoinPool pool;
+    private final int gamesPerChunk;
+    private final int maxChunksInFlight;
+    private long gameCount;
+    private long invalidGameCount;
+    private long elapsedNanos;
+
+    public PGNReader(final ForkJoinPool pool, final int gamesPerChunk) {
+        this.pool = pool;
+        this.gamesPerChunk = gamesPerChunk;
+        this.maxChunksInFlight = 2 * pool.getParallelism();
+    }
+
+    public PGNReader(final ForkJoinPool pool) {
+        this(pool, DEFAULT_GAMES_PER_CHUNK);
+    }
+
+    public PGNReader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses every game in the file.
+     * @param file PGN, UTF-8 (malformed bytes are replaced)
+     * @param sink called with each game in file order, on the calling thread - invalid games included
+     * @return number of games read
+     * @throws IOException
+     */
+    public long read(final Path file, final Consumer<PGNGame> sink) throws IOException {
+        final long start = System.nanoTime();
+        this.gameCount = 0;
+        this.invalidGameCount = 0;
+        final ArrayDeque<ForkJoinTask<List<PGNGame>>> inFlight = new ArrayDeque<>();
+        try(final BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            List<String> chunk = new ArrayList<>(this.gamesPerChunk);
+            final StringBuilder game = new StringBuilder();
+            boolean inMovetext = false;
+            boolean resultSeen = false;
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.startsWith("%")) {
+                    continue; // Escape line, ignored by definition.
+                }
+                final boolean blank = line.trim().isEmpty();
+                // A tag after movetext, or anything after the result (a blank line, the next game's movetext), starts
+                // the next game - tagless games are told apart by their results.
+                if(inMovetext && (line.startsWith("[") || resultSeen)) {
+                    chunk.add(game.toString());
+                    game.setLength(0);
+                    inMovetext = false;
+                    resultSeen = false;
+                    if(chunk.size() == this.gamesPerChunk) {
+                        submit(chunk, inFlight, sink);
+                        chunk = new ArrayList<>(this.gamesPerChunk);
+                    }
+                }
+                if(!line.startsWith("[") && !blank) {
+                    inMovetext = true;
+                    resultSeen = PGNUtilities.endsWithResult(line);
+                }
+                game.append(line).append('\n');
+            }
+            if(inMovetext) {
+                chunk.add(game.toString());
+            }
+            if(!chunk.isEmpty()) {
+                submit(chunk, inFlight, sink);
+            }
+            while(!inFlight.isEmpty()) {
+                emit(inFlight.removeFirst().join(), sink);
+            }
+        } finally {
+            // Reading failed - the parsed chunks are of no use any more.
+            for(final ForkJoinTask<List<PGNGame>> task : inFlight) {
+                task.cancel(false);
+            }
+            this.elapsedNanos = System.nanoTime() - start;
+        }
+        return this.gameCount;
+    }
+
+    private void submit(final List<String> chunk,
+                        final ArrayDeque<ForkJoinTask<List<PGNGame>>> inFlight,
+                        final Consumer<PGNGame> sink) {
+        if(inFlight.size() == this.maxChunksInFlight) {
+            emit(inFlight.removeFirst().join(), sink);
+        }
+        inFlight.addLast(this.pool.submit(() -> parseChunk(chunk)));
+    }
+
+    private static List<PGNGame> parseChunk(final List<String> chunk) {
+        final List<PGNGame> games = new ArrayList<>(chunk.size());
+        for(final String gameText : chunk) {
+            games.add(PGNUtilities.parseGame(gameText));
+        }
+        return games;
+    }
+
+    private void emit(final List<PGNGame> games, final Consumer<PGNGame> sink) {
+        for(final PGNGame game : games) {
+            this.gameCount++;
+            if(!game.isValid()) {
+                this.invalidGameCount++;
+            }
+            sink.accept(game);
+        }
+    }
+
+    // Statistics of the last read().
+
+    public long getGameCount() {
+        return this.gameCount;
+    }
+
+    public long getInvalidGameCount() {
+        return this.invalidGameCount;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.gameCount * 1_000_000_000.0 / this.elapsedNanos;
+    }
+}
@@ -0,0 +1,332 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Portable Game Notation - reads the text of one game (tag pairs and movetext) and converts moves between
+ * Standard Algebraic Notation ("Nbd7", "exd5", "e8=Q+", "O-O") and Move. Comments, variations, move numbers
+ * and NAGs are skipped, only the main line is replayed. Stateless, safe to call from many threads at once.
+ */
+public final class PGNUtilities {
+
+    private static final String PIECE_LETTERS = "BKNPQR"; // Same order as Piece.PieceType.
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private PGNUtilities() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    /**
+     * Parses one game. Errors in the movetext do not throw, they end up in PGNGame.getParseError().
+     * @param gameText tag pairs and movetext of exactly one game
+     * @return
+     */
+    public static PGNGame parseGame(final CharSequence gameText) {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        int index = parseTags(gameText, tags);
+        final List<Move> moves = new ArrayList<>();
+        final List<Board> positions = new ArrayList<>();
+        String result = tags.getOrDefault("Result", "*");
+        String parseError = null;
+        try {
+            final String fen = tags.get("FEN");
+            Board board = fen != null ? FenUtilities.createGameFromFEN(fen) : Board.createStandardBoard();
+            positions.add(board);
+            int variationDepth = 0;
+            while(index < gameText.length()) {
+                final char character = gameText.charAt(index);
+                if(Character.isWhitespace(character)) {
+                    index++;
+                } else if(character == '{') {
+                    index = skipPast(gameText, index, '}');
+                } else if(character == ';') {
+                    index = skipPast(gameText, index, '\n');
+                } else if(character == '(') {
+                    variationDepth++;
+                    index++;
+                } else if(character == ')') {
+                    variationDepth--;
+                    index++;
+                } else {
+                    final int end = tokenEnd(gameText, index);
+                    final String token = gameText.subSequence(index, end).toString();
+                    index = end;
+                    if(variationDepth > 0 || token.charAt(0) == '$' || isMoveNumber(token)) {
+                        continue;
+                    }
+                    if(isResult(token)) {
+                        result = token;
+                        break;
+                    }
+                    final Move move = createMove(board, token);
+                    final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+                    if(move == Move.NULL_MOVE || !transition.getMoveStatus().isDone()) {
+                        throw new RuntimeException("illegal move " + token + " after " + moves.size() + " plies in " +
+                                FenUtilities.createFENFromGame(board));
+                    }
+                    board = transition.getTransitionBoard();
+                    moves.add(move);
+                    positions.add(board);
+                }
+            }
+        } catch (final RuntimeException e) {
+            parseError = e.getMessage();
+        }
+        return new PGNGame(tags, moves, positions, result, parseError);
+    }
+
+    // Reads the [Name "Value"] lines, returns the index where the movetext starts.
+    private static int parseTags(final CharSequence text, final Map<String, String> tags) {
+        int index = 0;
+        while(true) {
+            while(index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+            if(index >= text.length() || text.charAt(index) != '[') {
+                return index;
+            }
+            int nameEnd = ++index;
+            while(nameEnd < text.length() && !Character.isWhitespace(text.charAt(nameEnd)) && text.charAt(nameEnd) != ']') {
+                nameEnd++;
+            }
+            final String name = text.subSequence(index, nameEnd).toString();
+            final StringBuilder value = new StringBuilder();
+            index = nameEnd;
+            while(index < text.length() && text.charAt(index) != '"' && text.charAt(index) != ']') {
+                index++;
+            }
+            if(index < text.length() && text.charAt(index) == '"') {
+                for(index++; index < text.length() && text.charAt(index) != '"'; index++) {
+                    // Backslash escapes the quote and itself.
+                    if(text.charAt(index) == '\\' && index + 1 < text.length()) {
+                        index++;
+                    }
+                    value.append(text.charAt(index));
+                }
+            }
+            index = skipPast(text, index, ']');
+            tags.put(name, value.toString());
+        }
+    }
+
+    private static int skipPast(final CharSequence text, final int index, final char character) {
+        for(int i = index + 1; i < text.length(); i++) {
+            if(text.charAt(i) == character) {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+
+    private static int tokenEnd(final CharSequence text, int index) {
+        while(index < text.length()) {
+            final char character = text.charAt(index);
+            if(Character.isWhitespace(character) || character == '{' || character == ';' || character == '(' || character == ')') {
+                break;
+            }
+            index++;
+            // "1.e4" - the move number may be glued to the move.
+            if(character == '.') {
+                break;
+            }
+        }
+        return index;
+    }
+
+    // "12." or "12..." - also a lone "." of a "1. .." split by tokenEnd().
+    private static boolean isMoveNumber(final String token) {
+        for(int i = 0; i < token.length(); i++) {
+            final char character = token.charAt(i);
+            if(!Character.isDigit(character) && character != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isResult(final String token) {
+        for(final String result : RESULTS) {
+            if(result.equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Movetext line whose last token is a game result - the game ends there.
+    static boolean endsWithResult(final String line) {
+        final String trimmed = line.trim();
+        return isResult(trimmed.substring(trimmed.lastIndexOf(' ') + 1));
+    }
+
+    /**
+     * Finds the move written in SAN among the moves of the side to move. Check / mate signs and annotations
+     * ("!", "?") are optional, "0-0" is read as "O-O". Like Player.getLegalMoves() the result may still leave the
+     * King in check - pinned pieces are only tried when the SAN fits more than one piece.
+     * @param board
+     * @param san
+     * @return the move, Move.NULL_MOVE when there is no such move or it is ambiguous
+     */
+    public static Move createMove(final Board board, final String san) {
+        int end = san.length();
+        while(end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        final String text = san.substring(0, end);
+        final int kingTile = board.getCurrentPlayer().getPlayerKing().getPiecePosition();
+        if(text.equals("O-O") || text.equals("0-0")) {
+            return castleMove(board, kingTile, kingTile + 2);
+        }
+        if(text.equals("O-O-O") || text.equals("0-0-0")) {
+            return castleMove(board, kingTile, kingTile - 2);
+        }
+        if(text.length() < 2) {
+            return Move.NULL_MOVE;
+        }
+        // Piece letter, then optional origin file / rank and 'x', destination, optional promotion ("=Q" or "Q").
+        int index = 0;
+        Piece.PieceType pieceType = Piece.PieceType.PAWN;
+        final int pieceLetter = PIECE_LETTERS.indexOf(text.charAt(0));
+        if(pieceLetter >= 0) {
+            pieceType = Piece.PieceType.values()[pieceLetter];
+            index++;
+        }
+        Piece.PieceType promotionType = null;
+        int destinationEnd = text.length();
+        final int promotionLetter = PIECE_LETTERS.indexOf(text.charAt(text.length() - 1));
+        if(pieceType == Piece.PieceType.PAWN && promotionLetter >= 0) {
+            promotionType = Piece.PieceType.values()[promotionLetter];
+            destinationEnd -= text.charAt(text.length() - 2) == '=' ? 2 : 1;
+        }
+        if(destinationEnd - index < 2) {
+            return Move.NULL_MOVE;
+        }
+        final int destination = BoardUtils.getCoordinateAtPosition(text.substring(destinationEnd - 2, destinationEnd));
+        if(destination < 0) {
+            return Move.NULL_MOVE;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for(int i = index; i < destinationEnd - 2; i++) {
+            final char character = text.charAt(i);
+            if(character >= 'a' && character <= 'h') {
+                fromFile = character - 'a';
+            } else if(character >= '1' && character <= '8') {
+                fromRank = BoardUtils.NUM_TILES_PER_ROW - (character - '0');
+            } else if(character != 'x' && character != ':') {
+                return Move.NULL_MOVE;
+            }
+        }
+        // Every piece of the type that fits the disambiguation - the move index answers each one in O(1).
+        Move found = Move.NULL_MOVE;
+        boolean foundIsLegal = false;
+        for(final Piece piece : board.getCurrentPlayer().getActivePieces()) {
+            final int tile = piece.getPiecePosition();
+            if(piece.getPieceType() != pieceType ||
+               fromFile >= 0 && tile % BoardUtils.NUM_TILES_PER_ROW != fromFile ||
+               fromRank >= 0 && tile / BoardUtils.NUM_TILES_PER_ROW != fromRank) {
+                continue;
+            }
+            final Move move = Move.MoveFactory.createMove(board, tile, destination, promotionType);
+            if(move == Move.NULL_MOVE || move.isCastleMove()) {
+                continue;
+            }
+            if(found == Move.NULL_MOVE) {
+                found = move;
+                continue;
+            }
+            // More than one candidate - SAN leaves out the origin when the other piece is pinned.
+            if(!foundIsLegal) {
+                if(!isLegal(board, found)) {
+                    found = move;
+                    continue;
+                }
+                foundIsLegal = true;
+            }
+            if(isLegal(board, move)) {
+                return Move.NULL_MOVE; // Ambiguous.
+            }
+        }
+        return found;
+    }
+
+    private static Move castleMove(final Board board, final int kingTile, final int destination) {
+        final Move move = Move.MoveFactory.createMove(board, kingTile, destination);
+        return move.isCastleMove() ? move : Move.NULL_MOVE;
+    }
+
+    // Player.getLegalMoves() still has the moves which leave the King in check.
+    private static boolean isLegal(final Board board, final Move move) {
+        return board.isLegalMove(move);
+    }
+
+    /**
+     * Writes the move in SAN, with the shortest disambiguation and a check / mate sign.
+     * @param board position before the move
+     * @param move legal move of the side to move
+     * @return
+     */
+    public static String createSAN(final Board board, final Move move) {
+        final StringBuilder san = new StringBuilder(8);
+        final Piece movedPiece = move.getMovedPiece();
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        if(move.isCastleMove()) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else if(movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+            if(move.isAttack()) {
+                san.append(BoardUtils.getPositionAtCoordinate(from).charAt(0)).append('x');
+            }
+            san.append(BoardUtils.getPositionAtCoordinate(to));
+            if(move instanceof Move.PawnPromotion) {
+                san.append('=').append(((Move.PawnPromotion) move).getPromotionType().toString());
+            }
+        } else {
+            san.append(movedPiece.getPieceType().toString());
+            // Other pieces of the same type which can go to the same tile.
+            boolean sameFile = false;
+            boolean sameRank = false;
+            boolean ambiguous = false;
+            for(final Piece piece : board.getCurrentPlayer().getActivePieces()) {
+                final int tile = piece.getPiecePosition();
+                if(tile == from || piece.getPieceType() != movedPiece.getPieceType()) {
+                    continue;
+                }
+                final Move other = Move.MoveFactory.createMove(board, tile, to);
+                if(other != Move.NULL_MOVE && isLegal(board, other)) {
+                    ambiguous = true;
+                    sameFile |= tile % BoardUtils.NUM_TILES_PER_ROW == from % BoardUtils.NUM_TILES_PER_ROW;
+                    sameRank |= tile / BoardUtils.NUM_TILES_PER_ROW == from / BoardUtils.NUM_TILES_PER_ROW;
+                }
+            }
+            final String fromSquare = BoardUtils.getPositionAtCoordinate(from);
+            if(ambiguous && (!sameFile || sameRank)) {
+                san.append(fromSquare.charAt(0));
+            }
+            if(ambiguous && sameFile) {
+                san.append(fromSquare.charAt(1));
+            }
+            if(move.isAttack()) {
+                san.append('x');
+            }
+            san.append(BoardUtils.getPositionAtCoordinate(to));
+        }
+        final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+        final Board toBoard = transition.getTransitionBoard();
+        if(toBoard.getCurrentPlayer().isInCheckMate()) {
+            san.append('#');
+        } else if(toBoard.getCurrentPlayer().isInCheck()) {
+            san.append('+');
+        }
+        return san.toString();
+    }
+}
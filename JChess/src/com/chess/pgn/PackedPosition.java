@@ -0,0 +1,192 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MutableBoard;
+import com.chess.engine.board.Tile;
+import com.chess.engine.pieces.Piece;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed width binary form of a position - 32 bytes, little endian:
+ *
+ *  bytes  0 - 7   occupancy bitboard (bit N = tile N, a8 = 0)
+ *  bytes  8 - 23  piece codes (side * 6 + type, as in MutableBoard) of the occupied tiles in tile order, 4 bits each,
+ *                 the first piece in the low bits of byte 8
+ *  byte  24       bit 0 side to move (1 = Black), bits 1 - 4 castling rights (MutableBoard.WHITE_KING_SIDE etc.)
+ *  byte  25       en passant tile (the tile the pawn jumped over), 0xFF if none
+ *  byte  26       halfmove clock, capped at 255
+ *  bytes 27 - 28  fullmove number, capped at 65535
+ *  bytes 29 - 31  reserved, zero
+ *
+ * All methods work on absolute offsets and leave the buffer position alone, so they are safe on a shared
+ * read only buffer. The buffer has to be little endian.
+ */
+public final class PackedPosition {
+
+    public static final int POSITION_BYTES = 32;
+
+    private static final int PIECES_OFFSET = 8;
+    private static final int FLAGS_OFFSET = 24;
+    private static final int EN_PASSANT_OFFSET = 25;
+    private static final int HALFMOVE_CLOCK_OFFSET = 26;
+    private static final int FULLMOVE_NUMBER_OFFSET = 27;
+    private static final int MAX_PIECES = 32;
+    private static final int NO_EN_PASSANT = 0xFF;
+
+    private PackedPosition() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static void write(final ByteBuffer buffer, final int offset, final Board board) {
+        long occupancy = 0L;
+        long pieceCodes = 0L;
+        long morePieceCodes = 0L;
+        int pieceCount = 0;
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Tile tile = board.getTile(i);
+            if(!tile.isTileOccupied()) {
+                continue;
+            }
+            final Piece piece = tile.getPiece();
+            final long code = piece.getPieceAlliance().ordinal() * MutableBoard.NUM_PIECE_TYPES + piece.getPieceType().ordinal();
+            if(pieceCount < 16) {
+                pieceCodes |= code << (4 * pieceCount);
+            } else if(pieceCount < MAX_PIECES) {
+                morePieceCodes |= code << (4 * (pieceCount - 16));
+            } else {
+                throw new RuntimeException("More than " + MAX_PIECES + " pieces on the board");
+            }
+            occupancy |= 1L << i;
+            pieceCount++;
+        }
+        final Piece enPassantPawn = board.getEnPassantPawn();
+        final int enPassantTile = enPassantPawn == null ? MutableBoard.NO_SQUARE :
+                enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        write(buffer, offset, occupancy, pieceCodes, morePieceCodes,
+              board.getCurrentPlayer().getAlliance().ordinal(), board.getCastlingRights(), enPassantTile,
+              board.getHalfmoveClock(), board.getFullmoveNumber());
+    }
+
+    public static void write(final ByteBuffer buffer, final int offset, final MutableBoard board) {
+        final long occupancy = board.getOccupancy();
+        if(Long.bitCount(occupancy) > MAX_PIECES) {
+            throw new RuntimeException("More than " + MAX_PIECES + " pieces on the board");
+        }
+        long pieceCodes = 0L;
+        long morePieceCodes = 0L;
+        long remaining = occupancy;
+        for(int i = 0; remaining != 0; i++) {
+            final long code = board.getPiece(Long.numberOfTrailingZeros(remaining));
+            if(i < 16) {
+                pieceCodes |= code << (4 * i);
+            } else {
+                morePieceCodes |= code << (4 * (i - 16));
+            }
+            remaining &= remaining - 1;
+        }
+        write(buffer, offset, occupancy, pieceCodes, morePieceCodes, board.getSideToMove(), board.getCastlingRights(),
+              board.getEnPassantSquare(), board.getHalfmoveClock(), board.getFullmoveNumber());
+    }
+
+    private static void write(final ByteBuffer buffer,
+                              final int offset,
+                              final long occupancy,
+                              final long pieceCodes,
+                              final long morePieceCodes,
+                              final int sideToMove,
+                              final int castlingRights,
+                              final int enPassantTile,
+                              final int halfmoveClock,
+                              final int fullmoveNumber) {
+        buffer.putLong(offset, occupancy);
+        buffer.putLong(offset + PIECES_OFFSET, pieceCodes);
+        buffer.putLong(offset + PIECES_OFFSET + 8, morePieceCodes);
+        buffer.put(offset + FLAGS_OFFSET, (byte) (sideToMove | (castlingRights << 1)));
+        buffer.put(offset + EN_PASSANT_OFFSET, (byte) (enPassantTile == MutableBoard.NO_SQUARE ? NO_EN_PASSANT : enPassantTile));
+        buffer.put(offset + HALFMOVE_CLOCK_OFFSET, (byte) Math.min(halfmoveClock, 0xFF));
+        buffer.putShort(offset + FULLMOVE_NUMBER_OFFSET, (short) Math.min(fullmoveNumber, 0xFFFF));
+        buffer.put(offset + FULLMOVE_NUMBER_OFFSET + 2, (byte) 0);
+        buffer.putShort(offset + FULLMOVE_NUMBER_OFFSET + 3, (short) 0);
+    }
+
+    /**
+     * Materializes the position as a Board.
+     * @param buffer
+     * @param offset
+     * @return
+     */
+    public static Board read(final ByteBuffer buffer, final int offset) {
+        final Board.Builder builder = new Board.Builder();
+        final Piece[] pieces = new Piece[BoardUtils.NUM_TILES];
+        long occupancy = getOccupancy(buffer, offset);
+        for(int i = 0; occupancy != 0; i++) {
+            final int tile = Long.numberOfTrailingZeros(occupancy);
+            final int code = getPieceCode(buffer, offset, i);
+            if(code >= 2 * MutableBoard.NUM_PIECE_TYPES) {
+                throw new RuntimeException("Invalid piece code " + code + " at offset " + offset);
+            }
+            pieces[tile] = Piece.PieceType.values()[code % MutableBoard.NUM_PIECE_TYPES]
+                    .createPiece(tile, Alliance.values()[code / MutableBoard.NUM_PIECE_TYPES], true);
+            occupancy &= occupancy - 1;
+        }
+        final Alliance nextMoveMaker = Alliance.values()[getSideToMove(buffer, offset)];
+        builder.setMoveMaker(nextMoveMaker);
+        builder.setHalfmoveClock(getHalfmoveClock(buffer, offset));
+        builder.setFullmoveNumber(Math.max(1, getFullmoveNumber(buffer, offset)));
+        return FenUtilities.buildBoard(builder, pieces, nextMoveMaker, getCastlingRights(buffer, offset), getEnPassantSquare(buffer, offset));
+    }
+
+    // The fields below can be read without building a Board - for scanning / filtering a store.
+
+    public static long getOccupancy(final ByteBuffer buffer, final int offset) {
+        return buffer.getLong(offset);
+    }
+
+    public static int getPieceCount(final ByteBuffer buffer, final int offset) {
+        return Long.bitCount(getOccupancy(buffer, offset));
+    }
+
+    // Code of the index-th piece in tile order (see class comment).
+    private static int getPieceCode(final ByteBuffer buffer, final int offset, final int index) {
+        return (buffer.get(offset + PIECES_OFFSET + index / 2) >>> (4 * (index & 1))) & 0xF;
+    }
+
+    /**
+     * @param buffer
+     * @param offset
+     * @param tile
+     * @return piece code on the tile (side * 6 + type) or MutableBoard.NO_PIECE
+     */
+    public static int getPiece(final ByteBuffer buffer, final int offset, final int tile) {
+        final long occupancy = getOccupancy(buffer, offset);
+        if((occupancy & (1L << tile)) == 0) {
+            return MutableBoard.NO_PIECE;
+        }
+        return getPieceCode(buffer, offset, Long.bitCount(occupancy & ((1L << tile) - 1)));
+    }
+
+    // MutableBoard.WHITE / BLACK
+    public static int getSideToMove(final ByteBuffer buffer, final int offset) {
+        return buffer.get(offset + FLAGS_OFFSET) & 1;
+    }
+
+    public static int getCastlingRights(final ByteBuffer buffer, final int offset) {
+        return (buffer.get(offset + FLAGS_OFFSET) >>> 1) & 0xF;
+    }
+
+    public static int getEnPassantSquare(final ByteBuffer buffer, final int offset) {
+        final int enPassantTile = buffer.get(offset + EN_PASSANT_OFFSET) & 0xFF;
+        return enPassantTile == NO_EN_PASSANT ? MutableBoard.NO_SQUARE : enPassantTile;
+    }
+
+    public static int getHalfmoveClock(final ByteBuffer buffer, final int offset) {
+        return buffer.get(offset + HALFMOVE_CLOCK_OFFSET) & 0xFF;
+    }
+
+    public static int getFullmoveNumber(final ByteBuffer buffer, final int offset) {
+        return buffer.getShort(offset + FULLMOVE_NUMBER_OFFSET) & 0xFFFF;
+    }
+}
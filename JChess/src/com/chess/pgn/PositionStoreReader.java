@@ -0,0 +1,84 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to a store written by PositionStoreWriter. The file is memory mapped read only, so reading a
+ * position copies nothing onto the heap - the PackedPosition accessors read straight from the mapping and a Board
+ * is only built when asked for. A single mapping is limited to 2GB, so larger files are mapped in segments of
+ * 2^25 positions (a position never spans two segments).
+ *
+ * Safe to share between threads once opened - all reads are absolute.
+ */
+public final class PositionStoreReader implements Closeable {
+
+    private static final int SEGMENT_SHIFT = 25;
+    private static final int POSITIONS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long positionCount;
+
+    public PositionStoreReader(final Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        final long size = this.channel.size();
+        if(size % PackedPosition.POSITION_BYTES != 0) {
+            this.channel.close();
+            throw new RuntimeException(file + " is not a position store, size " + size);
+        }
+        this.positionCount = size / PackedPosition.POSITION_BYTES;
+        this.segments = new MappedByteBuffer[(int) ((this.positionCount + POSITIONS_PER_SEGMENT - 1) >>> SEGMENT_SHIFT)];
+        for(int i = 0; i < this.segments.length; i++) {
+            final long start = (long) i * POSITIONS_PER_SEGMENT * PackedPosition.POSITION_BYTES;
+            this.segments[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(size - start, (long) POSITIONS_PER_SEGMENT * PackedPosition.POSITION_BYTES));
+            this.segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public long getPositionCount() {
+        return this.positionCount;
+    }
+
+    /**
+     * Segment holding the position, to use with getOffset() and the PackedPosition accessors.
+     * @param index
+     * @return
+     */
+    public MappedByteBuffer getSegment(final long index) {
+        if(index < 0 || index >= this.positionCount) {
+            throw new RuntimeException("Position " + index + " out of range, store has " + this.positionCount);
+        }
+        return this.segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    public static int getOffset(final long index) {
+        return (int) (index & (POSITIONS_PER_SEGMENT - 1)) * PackedPosition.POSITION_BYTES;
+    }
+
+    public Board getBoard(final long index) {
+        return PackedPosition.read(getSegment(index), getOffset(index));
+    }
+
+    public long getOccupancy(final long index) {
+        return PackedPosition.getOccupancy(getSegment(index), getOffset(index));
+    }
+
+    public int getSideToMove(final long index) {
+        return PackedPosition.getSideToMove(getSegment(index), getOffset(index));
+    }
+
+    // Unmaps on garbage collection - there is no way to unmap earlier, the mapping stays valid after close().
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
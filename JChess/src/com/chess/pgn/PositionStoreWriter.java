@@ -0,0 +1,90 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MutableBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends positions to a store file in the PackedPosition format (no header, position N at byte N * 32).
+ * Positions are collected in one direct buffer and written to the channel when it is full, so appending
+ * allocates nothing. Not thread safe.
+ */
+public final class PositionStoreWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_POSITIONS = 2048;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long positionCount;
+
+    /**
+     * @param file
+     * @param append keep the positions already in the file, otherwise it is truncated
+     * @throws IOException
+     */
+    public PositionStoreWriter(final Path file, final boolean append) throws IOException {
+        this.channel = append ?
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND) :
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final long size = this.channel.size();
+        if(size % PackedPosition.POSITION_BYTES != 0) {
+            this.channel.close();
+            throw new RuntimeException(file + " is not a position store, size " + size);
+        }
+        this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_POSITIONS * PackedPosition.POSITION_BYTES)
+                                .order(ByteOrder.LITTLE_ENDIAN);
+        this.positionCount = size / PackedPosition.POSITION_BYTES;
+    }
+
+    public PositionStoreWriter(final Path file) throws IOException {
+        this(file, false);
+    }
+
+    public void append(final Board board) throws IOException {
+        PackedPosition.write(this.buffer, reserve(), board);
+    }
+
+    public void append(final MutableBoard board) throws IOException {
+        PackedPosition.write(this.buffer, reserve(), board);
+    }
+
+    // Offset for the next position in the buffer, flushing first if it is full.
+    private int reserve() throws IOException {
+        if(this.buffer.remaining() < PackedPosition.POSITION_BYTES) {
+            flush();
+        }
+        final int offset = this.buffer.position();
+        this.buffer.position(offset + PackedPosition.POSITION_BYTES);
+        this.positionCount++;
+        return offset;
+    }
+
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while(this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    // Positions in the file, including the ones not flushed yet.
+    public long getPositionCount() {
+        return this.positionCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
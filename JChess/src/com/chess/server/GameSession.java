@@ -0,0 +1,221 @@
+package com.chess.server;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveStatus;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+import com.chess.pgn.FenUtilities;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One game - its Board, the positions played (GameHistory, for repetitions), the ply count and both clocks.
+ *
+ * All of that belongs to the session's own (virtual) thread, which takes commands from a mailbox one at a time -
+ * no lock guards the game, none is needed. Other threads submit moves and get a CompletableFuture with the result,
+ * and read the last GameState snapshot through a volatile field. Sessions share nothing, so a move costs the same
+ * however many games are running.
+ *
+ * Moves are played through Player.makeMove(). Clocks count from the creation of the session (White's) and from
+ * the opponent's last move. The session thread waits for commands no longer than the side to move has left, so a
+ * side loses on time when its clock runs out - whether it moves late or not at all. Threefold repetition and the
+ * fifty move rule end the game as draws without a claim.
+ */
+public final class GameSession implements Runnable {
+
+    private final long id;
+    private final LinkedTransferQueue<Runnable> mailbox = new LinkedTransferQueue<>();
+    private final boolean timed;
+    private final long incrementNanos;
+    // Owned by the session thread.
+    private Board board;
+    private final GameHistory gameHistory = new GameHistory();
+    private int plyCount;
+    // Indexed by Alliance ordinal.
+    private final long[] remainingNanos = new long[2];
+    private long turnStartNanos;
+    private GameStatus status = GameStatus.IN_PROGRESS;
+    // Set by the session thread when it has stopped taking commands.
+    private volatile boolean closed;
+    private volatile GameState state;
+
+    /**
+     * @param id
+     * @param board starting position
+     * @param timeMillis time of each side for the whole game, 0 or less for no clocks
+     * @param incrementMillis added to the clock of the side after each of its moves
+     */
+    GameSession(final long id, final Board board, final long timeMillis, final long incrementMillis) {
+        this.id = id;
+        this.board = board;
+        this.timed = timeMillis > 0;
+        this.incrementNanos = incrementMillis * 1_000_000L;
+        Arrays.fill(this.remainingNanos, timeMillis * 1_000_000L);
+        this.turnStartNanos = System.nanoTime();
+        this.gameHistory.record(board);
+        publishState();
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    // Game after the last move played - readable from any thread.
+    public GameState getState() {
+        return this.state;
+    }
+
+    /**
+     * Hands the move to the session thread.
+     * @param move long algebraic notation, "e2e4" / "e7e8q"
+     * @return completed once the session has played (or refused) the move
+     */
+    public CompletableFuture<MoveResult> submitMove(final String move) {
+        final CompletableFuture<MoveResult> result = new CompletableFuture<>();
+        submit(() -> result.complete(play(move)));
+        return result;
+    }
+
+    /**
+     * Ends the session - a game still in progress is ABORTED, later moves are refused.
+     * @return completed with the final state once the session thread is done
+     */
+    public CompletableFuture<GameState> close() {
+        final CompletableFuture<GameState> result = new CompletableFuture<>();
+        submit(() -> {
+            if(!this.status.isOver()) {
+                this.status = GameStatus.ABORTED;
+                publishState();
+            }
+            this.closed = true;
+            result.complete(this.state);
+        });
+        return result;
+    }
+
+    private void submit(final Runnable command) {
+        this.mailbox.offer(command);
+        // Session thread already gone - the game is over, nothing changes any more, so answer here.
+        if(this.closed) {
+            drainMailbox();
+        }
+    }
+
+    /**
+     * Session thread - plays the commands in arrival order until closed, and flags the side to move when its time
+     * runs out before its move arrives.
+     */
+    @Override
+    public void run() {
+        try {
+            while(!this.closed) {
+                final Runnable command = nextCommand();
+                if(command != null) {
+                    command.run();
+                } else {
+                    runClock();
+                }
+            }
+        } catch (final InterruptedException e) {
+            if(!this.status.isOver()) {
+                this.status = GameStatus.ABORTED;
+                publishState();
+            }
+            this.closed = true;
+        }
+        drainMailbox();
+    }
+
+    // Next command, null when the clock of the side to move ran out first.
+    private Runnable nextCommand() throws InterruptedException {
+        if(!this.timed || this.status.isOver()) {
+            return this.mailbox.take();
+        }
+        final long remaining = this.remainingNanos[this.board.getCurrentPlayer().getAlliance().ordinal()] -
+                               (System.nanoTime() - this.turnStartNanos);
+        return remaining > 0 ? this.mailbox.poll(remaining, TimeUnit.NANOSECONDS) : null;
+    }
+
+    /**
+     * Charges the time since the turn started to the side to move - it loses on time when none is left.
+     * @return false when the game was lost on time
+     */
+    private boolean runClock() {
+        final int side = this.board.getCurrentPlayer().getAlliance().ordinal();
+        final long now = System.nanoTime();
+        this.remainingNanos[side] -= now - this.turnStartNanos;
+        this.turnStartNanos = now;
+        if(this.remainingNanos[side] <= 0) {
+            this.remainingNanos[side] = 0;
+            this.status = GameStatus.TIME_FORFEIT;
+            publishState();
+            return false;
+        }
+        return true;
+    }
+
+    private void drainMailbox() {
+        Runnable command;
+        while((command = this.mailbox.poll()) != null) {
+            command.run();
+        }
+    }
+
+    private MoveResult play(final String text) {
+        if(this.status.isOver()) {
+            return new MoveResult(MoveStatus.ILLEGAL_MOVE, this.state);
+        }
+        final Player player = this.board.getCurrentPlayer();
+        final int side = player.getAlliance().ordinal();
+        if(this.timed && !runClock()) {
+            return new MoveResult(MoveStatus.ILLEGAL_MOVE, this.state);
+        }
+        final Move move = Move.MoveFactory.createMove(this.board, text);
+        if(move == Move.NULL_MOVE) {
+            return new MoveResult(MoveStatus.ILLEGAL_MOVE, this.state);
+        }
+        final MoveTransition transition = player.makeMove(move);
+        if(!transition.getMoveStatus().isDone()) {
+            return new MoveResult(transition.getMoveStatus(), this.state);
+        }
+        this.board = transition.getTransitionBoard();
+        this.gameHistory.record(this.board);
+        this.plyCount++;
+        this.remainingNanos[side] += this.incrementNanos;
+        this.status = calculateStatus();
+        publishState();
+        // The opponent's clock starts now - playing the move and checking the result is not its time.
+        this.turnStartNanos = System.nanoTime();
+        return new MoveResult(MoveStatus.DONE, this.state);
+    }
+
+    private GameStatus calculateStatus() {
+        final Player player = this.board.getCurrentPlayer();
+        if(player.isInCheckMate()) {
+            return GameStatus.CHECKMATE;
+        }
+        if(player.isInStaleMate()) {
+            return GameStatus.STALEMATE;
+        }
+        if(this.gameHistory.isThreefoldRepetition()) {
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        if(this.gameHistory.isFiftyMoveDraw()) {
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        return GameStatus.IN_PROGRESS;
+    }
+
+    private void publishState() {
+        this.state = new GameState(this.id, FenUtilities.createFENFromGame(this.board),
+                                   this.board.getCurrentPlayer().getAlliance(), this.status, this.plyCount,
+                                   this.remainingNanos[Alliance.WHITE.ordinal()] / 1_000_000L,
+                                   this.remainingNanos[Alliance.BLACK.ordinal()] / 1_000_000L);
+    }
+}
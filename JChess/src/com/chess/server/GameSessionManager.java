@@ -0,0 +1,85 @@
+package com.chess.server;
+
+import com.chess.engine.board.Board;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process game server - hosts any number of concurrent GameSessions, each on its own virtual thread, so
+ * thousands of games cost thousands of small stacks rather than thousands of platform threads.
+ *
+ * The only shared structure is the id -> session map, a ConcurrentHashMap - looking a session up takes no lock,
+ * creating or closing one locks a single bin. Moves go straight to the session's mailbox.
+ */
+public final class GameSessionManager implements AutoCloseable {
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("game-session-", 1).factory();
+
+    /**
+     * Starts a game from the standard position.
+     * @param timeMillis time of each side, 0 for no clocks
+     * @param incrementMillis added after every move
+     * @return
+     */
+    public GameSession createSession(final long timeMillis, final long incrementMillis) {
+        return createSession(Board.createStandardBoard(), timeMillis, incrementMillis);
+    }
+
+    public GameSession createSession(final Board board, final long timeMillis, final long incrementMillis) {
+        final GameSession session = new GameSession(this.nextId.incrementAndGet(), board, timeMillis, incrementMillis);
+        this.sessions.put(session.getId(), session);
+        this.threadFactory.newThread(session).start();
+        return session;
+    }
+
+    /**
+     * @param id
+     * @return the session, null when there is none with the id (any more)
+     */
+    public GameSession getSession(final long id) {
+        return this.sessions.get(id);
+    }
+
+    /**
+     * Plays a move in the session.
+     * @param id
+     * @param move long algebraic notation
+     * @return
+     */
+    public CompletableFuture<MoveResult> submitMove(final long id, final String move) {
+        final GameSession session = this.sessions.get(id);
+        if(session == null) {
+            throw new RuntimeException("No game session " + id);
+        }
+        return session.submitMove(move);
+    }
+
+    /**
+     * Ends the session and forgets it.
+     * @param id
+     * @return final state, null when there is no session with the id
+     */
+    public CompletableFuture<GameState> closeSession(final long id) {
+        final GameSession session = this.sessions.remove(id);
+        return session == null ? CompletableFuture.completedFuture(null) : session.close();
+    }
+
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Closes all sessions and waits until their threads are done.
+     */
+    @Override
+    public void close() {
+        for(final Long id : this.sessions.keySet()) {
+            closeSession(id).join();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.chess.server;
+
+import com.chess.engine.Alliance;
+
+/**
+ * Snapshot of a game after a move - immutable, so any thread may read it while the session plays on.
+ */
+public final class GameState {
+
+    private final long sessionId;
+    private final String fen;
+    private final Alliance sideToMove;
+    private final GameStatus status;
+    private final int plyCount;
+    private final long whiteRemainingMillis;
+    private final long blackRemainingMillis;
+
+    GameState(final long sessionId,
+              final String fen,
+              final Alliance sideToMove,
+              final GameStatus status,
+              final int plyCount,
+              final long whiteRemainingMillis,
+              final long blackRemainingMillis) {
+        this.sessionId = sessionId;
+        this.fen = fen;
+        this.sideToMove = sideToMove;
+        this.status = status;
+        this.plyCount = plyCount;
+        this.whiteRemainingMillis = whiteRemainingMillis;
+        this.blackRemainingMillis = blackRemainingMillis;
+    }
+
+    public long getSessionId() {
+        return this.sessionId;
+    }
+
+    public String getFen() {
+        return this.fen;
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public GameStatus getStatus() {
+        return this.status;
+    }
+
+    // Moves of both sides played so far.
+    public int getPlyCount() {
+        return this.plyCount;
+    }
+
+    // Clock of the side at the time of the snapshot - the side to move's clock has been running since.
+    public long getRemainingMillis(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteRemainingMillis : this.blackRemainingMillis;
+    }
+
+    @Override
+    public String toString() {
+        return this.sessionId + " " + this.status + " " + this.fen + " " + this.whiteRemainingMillis + " " + this.blackRemainingMillis;
+    }
+}
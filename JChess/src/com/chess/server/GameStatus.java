@@ -0,0 +1,22 @@
+package com.chess.server;
+
+/**
+ * How a game stands - in progress or over, and why.
+ */
+public enum GameStatus {
+
+    IN_PROGRESS,
+    // Side to move is mated / lost on time - the other side wins.
+    CHECKMATE,
+    TIME_FORFEIT,
+    // Draws.
+    STALEMATE,
+    THREEFOLD_REPETITION,
+    FIFTY_MOVE_RULE,
+    // Closed before it was over.
+    ABORTED;
+
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+}
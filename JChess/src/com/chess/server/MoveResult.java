@@ -0,0 +1,26 @@
+package com.chess.server;
+
+import com.chess.engine.player.MoveStatus;
+
+/**
+ * Answer to a move sent to a GameSession - whether it was played and how the game stands afterwards.
+ */
+public final class MoveResult {
+
+    private final MoveStatus moveStatus;
+    private final GameState state;
+
+    MoveResult(final MoveStatus moveStatus, final GameState state) {
+        this.moveStatus = moveStatus;
+        this.state = state;
+    }
+
+    // DONE when the move was played, ILLEGAL_MOVE also for moves after the game was over.
+    public MoveStatus getMoveStatus() {
+        return this.moveStatus;
+    }
+
+    public GameState getState() {
+        return this.state;
+    }
+}
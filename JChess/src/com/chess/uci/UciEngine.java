@@ -0,0 +1,322 @@
+package com.chess.uci;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.AlphaBetaSearch;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.LazySmpSearch;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * UCI (Universal Chess Interface) front end - lets a GUI or a tournament manager play with the engine over
+ * stdin / stdout. Supported: uci, isready, ucinewgame, setoption (Hash, Threads), position (startpos / fen, moves),
+ * go (wtime, btime, winc, binc, movestogo, movetime, depth, nodes, infinite), stop and quit.
+ *
+ * Commands are read on the calling thread, the search runs on a worker thread - the reader keeps answering
+ * (isready during a search) and stop reaches the search at once. The search polls its stop flag at every node,
+ * so bestmove follows stop within milliseconds.
+ *
+ * Usage: UciEngine
+ */
+public final class UciEngine {
+
+    private static final String ENGINE_NAME = "JChess";
+    private static final String ENGINE_AUTHOR = "JChess developers";
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+    private static final int MAX_HASH_MEGABYTES = 4096;
+    private static final int MAX_THREADS = 256;
+    // Time the GUI needs to receive the move - kept back from every time budget.
+    private static final long MOVE_OVERHEAD_MILLIS = 20;
+    // Moves still to play when the GUI does not say (no movestogo).
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // How often stop repeats its request while waiting for the search to end - covers a search just starting.
+    private static final long STOP_POLL_MILLIS = 5;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final ExecutorService searchExecutor;
+    private final BoardEvaluator evaluator = new StandardBoardEvaluator();
+    private TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+    private int threadCount = 1;
+    private Board board = Board.createStandardBoard();
+    private final GameHistory gameHistory = new GameHistory();
+
+    // Running search - set and cleared by the reader thread only.
+    private Future<?> searchFuture;
+    private LazySmpSearch search;
+    private CountDownLatch stopLatch;
+
+    public UciEngine(final BufferedReader input, final PrintStream output) {
+        this.input = input;
+        this.output = output;
+        this.searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "uci-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.gameHistory.record(this.board);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        new UciEngine(input, System.out).run();
+    }
+
+    /**
+     * Reads and answers commands until quit or end of input.
+     * @throws IOException
+     */
+    public void run() throws IOException {
+        String line;
+        while((line = this.input.readLine()) != null) {
+            if(!handleCommand(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+        this.searchExecutor.shutdown();
+    }
+
+    /**
+     * @param line
+     * @return false after quit
+     */
+    boolean handleCommand(final String line) {
+        final String[] tokens = line.split("\\s+");
+        switch(tokens[0]) {
+            case "uci":
+                send("id name " + ENGINE_NAME);
+                send("id author " + ENGINE_AUTHOR);
+                send("option name Hash type spin default " + DEFAULT_HASH_MEGABYTES + " min 1 max " + MAX_HASH_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                this.transpositionTable.clear();
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                startSearch(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                // Unknown commands are ignored, as UCI asks.
+                break;
+        }
+        return true;
+    }
+
+    // setoption name <id> value <x>
+    private void setOption(final String[] tokens) {
+        final String name = tokenAfter(tokens, "name");
+        final String value = tokenAfter(tokens, "value");
+        if(name == null || value == null) {
+            return;
+        }
+        try {
+            if(name.equalsIgnoreCase("Hash")) {
+                final int megabytes = clamp(Integer.parseInt(value), 1, MAX_HASH_MEGABYTES);
+                this.transpositionTable = new TranspositionTable(megabytes);
+            } else if(name.equalsIgnoreCase("Threads")) {
+                this.threadCount = clamp(Integer.parseInt(value), 1, MAX_THREADS);
+            }
+        } catch (final NumberFormatException e) {
+            send("info string invalid value " + value + " for " + name);
+        }
+    }
+
+    // position [startpos | fen <fen>] [moves <move> ...]
+    private void setPosition(final String[] tokens) {
+        int index = 1;
+        Board board;
+        if(tokens.length > 1 && tokens[1].equals("fen")) {
+            final StringBuilder fen = new StringBuilder();
+            for(index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(tokens[index]).append(' ');
+            }
+            try {
+                board = FenUtilities.createGameFromFEN(fen.toString().trim());
+            } catch (final RuntimeException e) {
+                send("info string invalid fen " + fen.toString().trim());
+                return;
+            }
+        } else {
+            board = Board.createStandardBoard();
+            index = 2;
+        }
+        this.gameHistory.clear();
+        this.gameHistory.record(board);
+        if(index < tokens.length && tokens[index].equals("moves")) {
+            for(index++; index < tokens.length; index++) {
+                final Move move = Move.MoveFactory.createMove(board, tokens[index]);
+                final MoveTransition transition = move == Move.NULL_MOVE ? null : board.getCurrentPlayer().makeMove(move);
+                if(transition == null || !transition.getMoveStatus().isDone()) {
+                    send("info string illegal move " + tokens[index]);
+                    break;
+                }
+                board = transition.getTransitionBoard();
+                this.gameHistory.record(board);
+            }
+        }
+        this.board = board;
+    }
+
+    // go [wtime x] [btime x] [winc x] [binc x] [movestogo x] [movetime x] [depth x] [nodes x] [infinite]
+    private void startSearch(final String[] tokens) {
+        final boolean white = this.board.getCurrentPlayer().getAlliance().isWhite();
+        final long remaining = longAfter(tokens, white ? "wtime" : "btime", -1);
+        final long increment = longAfter(tokens, white ? "winc" : "binc", 0);
+        final long movesToGo = longAfter(tokens, "movestogo", DEFAULT_MOVES_TO_GO);
+        final long moveTime = longAfter(tokens, "movetime", -1);
+        final int depth = (int) longAfter(tokens, "depth", Integer.MAX_VALUE);
+        final long nodes = longAfter(tokens, "nodes", Long.MAX_VALUE);
+        final boolean infinite = contains(tokens, "infinite");
+
+        final long timeBudget;
+        if(infinite) {
+            timeBudget = Long.MAX_VALUE;
+        } else if(moveTime >= 0) {
+            timeBudget = Math.max(1, moveTime - MOVE_OVERHEAD_MILLIS);
+        } else if(remaining >= 0) {
+            final long share = remaining / Math.max(1, movesToGo) + increment * 3 / 4;
+            timeBudget = Math.max(1, Math.min(share, remaining / 2) - MOVE_OVERHEAD_MILLIS);
+        } else {
+            timeBudget = Long.MAX_VALUE;
+        }
+
+        final Board board = this.board;
+        final GameHistory gameHistory = this.gameHistory;
+        final LazySmpSearch search = new LazySmpSearch(this.threadCount, depth, timeBudget, nodes,
+                                                       this.transpositionTable, this.evaluator);
+        final CountDownLatch stopLatch = new CountDownLatch(1);
+        this.search = search;
+        this.stopLatch = stopLatch;
+        this.searchFuture = this.searchExecutor.submit(() -> {
+            final long startTime = System.nanoTime();
+            final int bestMove = search.search(board, gameHistory);
+            // "go infinite" answers after stop only, even when the search ends by itself (e.g. a mate found).
+            if(infinite) {
+                awaitStop(stopLatch);
+            }
+            sendResult(search, bestMove, System.nanoTime() - startTime);
+        });
+    }
+
+    private void sendResult(final LazySmpSearch search, final int bestMove, final long elapsedNanos) {
+        final long elapsedMillis = Math.max(1, elapsedNanos / 1_000_000);
+        final long nodes = search.getNodesSearched();
+        send("info depth " + search.getCompletedDepth() + " score " + AlphaBetaSearch.formatScore(search.getBestScore()) +
+             " nodes " + nodes + " nps " + nodes * 1000 / elapsedMillis + " time " + elapsedMillis +
+             " hashfull " + search.getTranspositionTable().getHashFull());
+        send("bestmove " + (bestMove == PackedMove.NONE ? "0000" : PackedMove.toString(bestMove)));
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has sent its bestmove - so the next command sees the
+     * engine idle. A stop which arrives while the worker is still setting the search up is repeated until it sticks.
+     */
+    private void stopSearch() {
+        final Future<?> future = this.searchFuture;
+        if(future == null) {
+            return;
+        }
+        this.stopLatch.countDown();
+        while(true) {
+            this.search.stop();
+            try {
+                future.get(STOP_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                break;
+            } catch (final TimeoutException e) {
+                // Search still running - stop again.
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final ExecutionException e) {
+                send("info string search failed: " + e.getCause());
+                break;
+            }
+        }
+        this.searchFuture = null;
+        this.search = null;
+        this.stopLatch = null;
+    }
+
+    private static void awaitStop(final CountDownLatch stopLatch) {
+        try {
+            stopLatch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Written from both the reader and the search thread - one line at a time.
+    private synchronized void send(final String line) {
+        this.output.println(line);
+        this.output.flush();
+    }
+
+    private static String tokenAfter(final String[] tokens, final String key) {
+        for(int i = 0; i < tokens.length - 1; i++) {
+            if(tokens[i].equals(key)) {
+                return tokens[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static long longAfter(final String[] tokens, final String key, final long defaultValue) {
+        final String value = tokenAfter(tokens, key);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean contains(final String[] tokens, final String key) {
+        for(final String token : tokens) {
+            if(token.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int clamp(final int value, final int min, final int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}